@@ -0,0 +1,131 @@
+// October 18, 2026
+
+// default package side of benchmarks. replays corpus positions onto OthelloBoards and runs the benchmarked
+// operations on them
+
+import com.avromi.benchmarks.GameOperations;
+
+public class BenchmarkGameOperations implements GameOperations {
+    private static final int BATCH_SIZE = 1024;  // boards in batch benchmarks
+    private final OthelloBoard[] positions;
+    private final SearchEngine searchEngine = new SearchEngine(4, 1);  // small single threaded table, cleared per op
+    private final int searchDepth;  // difficulty's fixed depth, its time budget would only measure the clock
+    private final long[] batchPlayers = new long[BATCH_SIZE];  // program to move in each position
+    private final long[] batchOpponents = new long[BATCH_SIZE];
+    private final long[] batchMoves = new long[BATCH_SIZE];  // first legal move, 0 if none
+    private final long[] batchResults = new long[BATCH_SIZE];
+
+    public BenchmarkGameOperations(String[] moveSequences, String gameDifficulty) {
+        positions = new OthelloBoard[moveSequences.length];
+        searchDepth = GameDifficulty.valueOf(gameDifficulty).getDepth();
+        for (int position = 0; position < moveSequences.length; position++) {
+            positions[position] = replay(moveSequences[position], GameDifficulty.valueOf(gameDifficulty));
+        }
+        for (int board = 0; board < BATCH_SIZE; board++) {
+            OthelloBoard position = positions[board % positions.length];
+            batchPlayers[board] = position.getPieces(Player.PROGRAM);
+            batchOpponents[board] = position.getPieces(Player.USER);
+            batchMoves[board] = Long.lowestOneBit(BitBoard.legalMoves(batchPlayers[board], batchOpponents[board]));
+        }
+    }
+
+    private static OthelloBoard replay(String moveSequence, GameDifficulty gameDifficulty) {
+        // play moves in sequence, user first and alternating, from starting board
+        OthelloBoard board = new OthelloBoard(gameDifficulty);
+        String playerSymbol = board.getUSER_SYMBOL();
+        for (int moveIndex = 0; moveIndex < moveSequence.length(); moveIndex += 2) {
+            int column = moveSequence.charAt(moveIndex) - 'A';
+            int row = moveSequence.charAt(moveIndex + 1) - '1';
+            if (board.runTurn(row, column, playerSymbol) == 0) {
+                throw new IllegalArgumentException("illegal move in corpus: " + moveSequence.substring(moveIndex));
+            }
+            playerSymbol = playerSymbol.equals(board.getUSER_SYMBOL()) ? board.getPROGRAM_SYMBOL() :
+                    board.getUSER_SYMBOL();
+        }
+        return board;
+    }
+
+    @Override
+    public int getPositionCount() {
+        return positions.length;
+    }
+
+    @Override
+    public int runTurn(int position) {
+        OthelloBoard board = new OthelloBoard(positions[position]);
+        int move = Long.numberOfTrailingZeros(board.getLegalMoves(Player.PROGRAM));
+        return board.runTurn(move / 8, move % 8, board.getPROGRAM_SYMBOL());
+    }
+
+    @Override
+    public boolean isLegalMove(int position, int square) {
+        OthelloBoard board = positions[position];
+        return board.isLegalMove(square / 8, square % 8, board.getPROGRAM_SYMBOL());
+    }
+
+    @Override
+    public boolean isSomeLegalMoveLeft(int position) {
+        return positions[position].isSomeLegalMoveLeft();
+    }
+
+    @Override
+    public Object copy(int position) {
+        return new OthelloBoard(positions[position]);
+    }
+
+    @Override
+    public int makeAndUnmakeMove(int position) {
+        OthelloBoard board = positions[position];
+        int move = Long.numberOfTrailingZeros(board.getLegalMoves(Player.PROGRAM));
+        int piecesFlipped = board.makeMove(move / 8, move % 8, board.getPROGRAM_SYMBOL());
+        board.unmakeMove();
+        return piecesFlipped;
+    }
+
+    @Override
+    public String toString(int position) {
+        return positions[position].toString(true);
+    }
+
+    @Override
+    public int[] nextBestMove(int position) {
+        OthelloBoard board = positions[position];
+        return board.nextBestMove(board.getPROGRAM_SYMBOL(), board.getUSER_SYMBOL(), board.getMovesToLookAhead());
+    }
+
+    @Override
+    public int findBestMove(int position) {
+        OthelloBoard board = new OthelloBoard(positions[position]);
+        return board.playEngineMove(Player.PROGRAM, searchEngine, searchDepth, 0);
+    }
+
+    @Override
+    public void clearSearchTable() {
+        searchEngine.getTranspositionTable().clear();
+    }
+
+    @Override
+    public int getBatchSize() {
+        return BATCH_SIZE;
+    }
+
+    @Override
+    public long batchLegalMoves(boolean vectorized) {
+        if (vectorized) {
+            BatchBitBoard.legalMoves(batchPlayers, batchOpponents, batchResults, BATCH_SIZE);
+        } else {
+            BatchBitBoard.scalarLegalMoves(batchPlayers, batchOpponents, batchResults, 0, BATCH_SIZE);
+        }
+        return batchResults[BATCH_SIZE - 1];
+    }
+
+    @Override
+    public long batchFlips(boolean vectorized) {
+        if (vectorized) {
+            BatchBitBoard.flips(batchPlayers, batchOpponents, batchMoves, batchResults, BATCH_SIZE);
+        } else {
+            BatchBitBoard.scalarFlips(batchPlayers, batchOpponents, batchMoves, batchResults, 0, BATCH_SIZE);
+        }
+        return batchResults[BATCH_SIZE - 1];
+    }
+}
@@ -0,0 +1,58 @@
+// October 18, 2026
+
+// BatchBitBoard's legal moves and flips over a batch of corpus positions, with vector kernels and one board at a time.
+// forks run with the vector module so both can be compared; scores are boards/sec
+
+package com.avromi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@OperationsPerInvocation(BatchBenchmarks.BATCH_SIZE)
+public class BatchBenchmarks {
+    static final int BATCH_SIZE = 1024;  // must match BenchmarkGameOperations' batch
+
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    public PositionCorpus.Phase phase;
+
+    @Param({"true", "false"})
+    public boolean vectorized;
+
+    private GameOperations operations;
+
+    @Setup
+    public void setUp() {
+        operations = GameOperations.load(phase, "HARD");
+        if (operations.getBatchSize() != BATCH_SIZE) {
+            throw new IllegalStateException("batch size doesn't match BenchmarkGameOperations");
+        }
+    }
+
+    @Benchmark
+    public long legalMoves() {
+        return operations.batchLegalMoves(vectorized);
+    }
+
+    @Benchmark
+    public long flips() {
+        return operations.batchFlips(vectorized);
+    }
+}
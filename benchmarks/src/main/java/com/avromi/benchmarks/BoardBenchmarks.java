@@ -0,0 +1,75 @@
+// October 18, 2026
+
+// move generation, flipping, copying, make/unmake and printing on each phase of the position corpus
+
+package com.avromi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmarks {
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    public PositionCorpus.Phase phase;
+
+    private GameOperations operations;
+    private int position;  // cycles through phase's positions so no single position dominates
+    private int square;  // cycles through all squares for isLegalMove
+
+    @Setup
+    public void setUp() {
+        operations = GameOperations.load(phase, "HARD");
+    }
+
+    private int nextPosition() {
+        position = position + 1 == operations.getPositionCount() ? 0 : position + 1;
+        return position;
+    }
+
+    @Benchmark
+    public int runTurn() {  // includes copying position, see copyConstructor
+        return operations.runTurn(nextPosition());
+    }
+
+    @Benchmark
+    public boolean isLegalMove() {
+        square = (square + 1) & 63;
+        return operations.isLegalMove(square == 0 ? nextPosition() : position, square);
+    }
+
+    @Benchmark
+    public boolean isSomeLegalMoveLeft() {
+        return operations.isSomeLegalMoveLeft(nextPosition());
+    }
+
+    @Benchmark
+    public Object copyConstructor() {
+        return operations.copy(nextPosition());
+    }
+
+    @Benchmark
+    public int makeAndUnmakeMove() {  // in place alternative to runTurn on a copy
+        return operations.makeAndUnmakeMove(nextPosition());
+    }
+
+    @Benchmark
+    public String toStringHighlightingLastMove() {
+        return operations.toString(nextPosition());
+    }
+}
@@ -0,0 +1,47 @@
+// October 18, 2026
+
+// operations being benchmarked. game classes are in the default package, which named packages (required by JMH)
+// can't refer to, so benchmarks call them through this interface, implemented by BenchmarkGameOperations
+
+package com.avromi.benchmarks;
+
+public interface GameOperations {
+    static GameOperations load(PositionCorpus.Phase phase, String gameDifficulty) {
+        // create default package implementation for given corpus positions and difficulty
+        try {
+            return (GameOperations) Class.forName("BenchmarkGameOperations")
+                    .getConstructor(String[].class, String.class)
+                    .newInstance(phase.getMoveSequences(), gameDifficulty);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("couldn't load game operations", e);
+        }
+    }
+
+    int getPositionCount();
+
+    int runTurn(int position);  // copy position and run program's first legal move on copy
+
+    boolean isLegalMove(int position, int square);  // square is row * 8 + column
+
+    boolean isSomeLegalMoveLeft(int position);
+
+    Object copy(int position);  // copy constructor
+
+    int makeAndUnmakeMove(int position);  // make program's first legal move in place and take it back
+
+    String toString(int position);  // toString(true), highlighting last move
+
+    int[] nextBestMove(int position);  // program's move with nextBestMove, looking ahead difficulty's moves
+
+    int findBestMove(int position);  // program's move with search engine, searching difficulty's depth
+
+    void clearSearchTable();  // so each search starts cold instead of finding last search's results
+
+    int getBatchSize();  // boards in a batch, phase's positions repeated
+
+    // BatchBitBoard legal moves of whole batch, with vectors if there are any or one board at a time. returns last
+    // board's result
+    long batchLegalMoves(boolean vectorized);
+
+    long batchFlips(boolean vectorized);  // BatchBitBoard flips of each board's first legal move
+}
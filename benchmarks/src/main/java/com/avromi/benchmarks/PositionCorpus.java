@@ -0,0 +1,39 @@
+// October 18, 2026
+
+// fixed positions benchmarks run over, stored as the moves played from the starting board (column letter then row
+// number). every position has the program to move
+
+package com.avromi.benchmarks;
+
+public final class PositionCorpus {
+    public enum Phase {
+        OPENING(
+                "F5D6C5B4B5B6D7",
+                "F5D6C6F4D7D8D3G5E8",
+                "D3E3F5C5C3B3B5F6F7A5E6",
+                "C4C3F5F4G4F6F7B4D3C5D6E7D7"),
+        MIDGAME(
+                "D3C5E6F5C6C7G4E3B7G5C8D7C4C3F7D6C2E7G6G7F8F3D8B2H7B5G3",
+                "F5D6C3D3C2B2B3F3B1E6C5A1C7D2F7E7E3F4D1B8G3H2F6B4H3G2G1C1E1",
+                "E6F4G3C6C3D3C5C4B7E7B5A6F6A8E8C2B2F7D2C1F5F3B1D8A5H3D1A1G4E3H2",
+                "C4C5D6C7B6B5C6B7A8C3B3D3D7F4A4A3B4B8A2A6E3E2A5E7F6E6F7G6F2C2C8E8D2"),
+        ENDGAME(
+                "F5F6E6F4G4D6C4G3C5H4C7C3D7B8D3C6B2D8B6E3H3G5C8A5E2F7H2F3A7A1C2E7E8B7A2F2G7C1G2F1G6H8H7F8G1",
+                "F5D6C6F6F7G5H4F4E3E2D2B7E6F8G4F3D1H3G3G2G6G7B6A6H6E1C7C1C4D7G1C3E7D3B8B3A3H1C5F2B5A5F1B4B2A7D8",
+                "E6D6C3F3C4E7F7D3C6B3E8C7C8B8A8B6C5D7A2F8G2D8E2D2C2B2A6F5G4C1G8A5E3G3D1G6A4F6A7G1A1H3G7A3B7H8B4B1H7",
+                "E6F4F3F6C4C5G4E7C6G3G7B4G2H1E3E2B3B2D8D6D7G6A4E8D1B6B5G8B7H2F7G5F8D3C3D2H4C7A3F5B1F2H3H6E1C1H5H7B8A1C8");
+
+        private final String[] moveSequences;
+
+        Phase(String... moveSequences) {
+            this.moveSequences = moveSequences;
+        }
+
+        public String[] getMoveSequences() {
+            return moveSequences.clone();
+        }
+    }
+
+    private PositionCorpus() {
+    }
+}
@@ -0,0 +1,63 @@
+// October 18, 2026
+
+// program's move selection at each difficulty on each phase of the position corpus, with the old nextBestMove
+// lookahead and with the search engine programsTurn uses
+
+package com.avromi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SearchBenchmarks {
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    public PositionCorpus.Phase phase;
+
+    @Param({"EASY", "MEDIUM", "HARD"})
+    public String gameDifficulty;
+
+    private GameOperations operations;
+    private int position;
+
+    @Setup
+    public void setUp() {
+        operations = GameOperations.load(phase, gameDifficulty);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearSearchTable() {  // searches are milliseconds long, so per invocation setup doesn't skew them
+        operations.clearSearchTable();
+    }
+
+    private int nextPosition() {
+        position = position + 1 == operations.getPositionCount() ? 0 : position + 1;
+        return position;
+    }
+
+    @Benchmark
+    public int[] nextBestMove() {
+        return operations.nextBestMove(nextPosition());
+    }
+
+    @Benchmark
+    public int searchEngine() {
+        return operations.findBestMove(nextPosition());
+    }
+}
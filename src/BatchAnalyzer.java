@@ -0,0 +1,164 @@
+// October 18, 2026
+
+// scores a file of positions (one per line in GamePosition's text form) with the search engine on several threads,
+// writing each position back out with its best move and score, in input order. input is read as it's needed, only a
+// fixed window of positions is ever in flight (reading waits when the window is full), so memory use doesn't grow
+// with file size.
+// usage: java BatchAnalyzer [--depth N] [--threads N] [--window N] [--hash-megabytes N] [input] [output]
+// input and output default to standard input and output ("-" for either means the same). output lines are
+// <position> <best move> <score> <depth>
+// score is from player to move's point of view; for a position solved exactly it's WIN_SCORE plus final piece
+// difference (see SearchEngine). "pass" means player to move has to pass (score is then opponent's best, negated)
+// and "-" that game is over (score is final piece difference). blank lines and lines starting with # are copied as
+// they are, and a line that isn't a position comes out as <line> error <reason>
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+public class BatchAnalyzer {
+    private static final Future<String> END_OF_INPUT = CompletableFuture.completedFuture(null);
+
+    private final int searchDepth;
+    private final int threads;
+    private final int window;  // most positions read but not yet written
+    private final ThreadLocal<SearchEngine> engines;
+    private final LongAdder positionsAnalyzed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public BatchAnalyzer(int searchDepth, int threads, int window, int hashMegabytes) {
+        this.searchDepth = searchDepth;
+        this.threads = threads;
+        this.window = window;
+        engines = ThreadLocal.withInitial(() -> new SearchEngine(hashMegabytes, 1));
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int searchDepth = OthelloBoard.getSearchDepth(GameDifficulty.HARD);
+        int threads = Runtime.getRuntime().availableProcessors();
+        int window = 0;  // 0 for 64 per thread
+        int hashMegabytes = 16;
+        String[] files = {"-", "-"};
+        int fileCount = 0;
+        for (int argIndex = 0; argIndex < args.length; argIndex++) {
+            switch (args[argIndex]) {
+                case "--depth" -> searchDepth = Integer.parseInt(args[++argIndex]);
+                case "--threads" -> threads = Integer.parseInt(args[++argIndex]);
+                case "--window" -> window = Integer.parseInt(args[++argIndex]);
+                case "--hash-megabytes" -> hashMegabytes = Integer.parseInt(args[++argIndex]);
+                default -> {
+                    if (fileCount == files.length) {
+                        System.out.println("usage: java BatchAnalyzer [--depth N] [--threads N] [--window N] "
+                                + "[--hash-megabytes N] [input] [output]");
+                        return;
+                    }
+                    files[fileCount++] = args[argIndex];
+                }
+            }
+        }
+        BatchAnalyzer analyzer = new BatchAnalyzer(searchDepth, threads, window > 0 ? window : 64 * threads,
+                hashMegabytes);
+        PrintStream report = files[1].equals("-") ? System.err : System.out;  // keep report out of output
+        long startTime = System.nanoTime();
+        try (Reader input = files[0].equals("-") ? new InputStreamReader(System.in, StandardCharsets.UTF_8) :
+                Files.newBufferedReader(Path.of(files[0]));
+             Writer output = files[1].equals("-") ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8) :
+                     Files.newBufferedWriter(Path.of(files[1]))) {
+            analyzer.analyze(new BufferedReader(input), new BufferedWriter(output));
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        report.printf("%,d positions analyzed to depth %d on %d threads in %.1f sec (%,.1f positions/sec), "
+                        + "%d errors%n", analyzer.positionsAnalyzed.sum(), searchDepth, threads, seconds,
+                analyzer.positionsAnalyzed.sum() / seconds, analyzer.errors.sum());
+    }
+
+    public void analyze(BufferedReader input, BufferedWriter output) throws IOException, InterruptedException {
+        /* analyze every line of input, writing results to output in same order. a reader thread hands lines to
+        search threads and queues up their results in input order; this thread writes them as they finish. queue
+        holds at most window results, so reader waits when writing falls behind */
+        BlockingQueue<Future<String>> results = new ArrayBlockingQueue<>(window);
+        ExecutorService searchThreads = Executors.newFixedThreadPool(threads);
+        Thread readerThread = new Thread(() -> readLines(input, results, searchThreads), "batch-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+        try {
+            for (Future<String> result = results.take(); result != END_OF_INPUT; result = results.take()) {
+                output.write(result.get());
+                output.newLine();
+            }
+            output.flush();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException readFailure) {
+                throw readFailure.getCause();
+            }
+            throw new IllegalStateException("analysis failed", e.getCause());
+        } finally {
+            readerThread.interrupt();  // in case writing stopped early and reader is waiting on a full queue
+            searchThreads.shutdownNow();
+        }
+    }
+
+    private void readLines(BufferedReader input, BlockingQueue<Future<String>> results, ExecutorService searchThreads) {
+        // runs on reader thread, queues a result for every line then END_OF_INPUT. put waits while queue is full
+        try {
+            try {
+                for (String line = input.readLine(); line != null; line = input.readLine()) {
+                    String text = line;
+                    results.put(text.isBlank() || text.startsWith("#") ? CompletableFuture.completedFuture(text) :
+                            searchThreads.submit(() -> analyzeLine(text)));
+                }
+            } catch (IOException e) {
+                results.put(CompletableFuture.failedFuture(new UncheckedIOException(e)));
+            }
+            results.put(END_OF_INPUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();  // writer gave up, nobody is waiting for rest
+        } catch (RejectedExecutionException e) {
+            // writer gave up and search threads are shut down
+        }
+    }
+
+    private String analyzeLine(String line) {
+        // runs on a search thread, returns output line for one input line
+        GamePosition position;
+        try {
+            position = GamePosition.parse(line);
+        } catch (IllegalArgumentException e) {
+            errors.increment();
+            return line + " error " + e.getMessage();
+        }
+        SearchEngine engine = engines.get();
+        long player = position.getPlayerPieces();
+        long opponent = position.getOpponentPieces();
+        String result;
+        if (BitBoard.legalMoves(player, opponent) != 0) {
+            int bestMove = engine.findBestMove(player, opponent, position.getPlayerColor(), searchDepth);
+            result = BitBoard.squareName(bestMove) + " " + engine.getLastScore() + " " + engine.getLastDepth();
+        } else if (BitBoard.legalMoves(opponent, player) != 0) {
+            engine.findBestMove(opponent, player, 1 - position.getPlayerColor(), searchDepth);
+            result = "pass " + -engine.getLastScore() + " " + engine.getLastDepth();
+        } else {
+            result = "- " + (Long.bitCount(player) - Long.bitCount(opponent)) + " 0";
+        }
+        positionsAnalyzed.increment();
+        return position + " " + result;
+    }
+}
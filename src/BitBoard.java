@@ -0,0 +1,176 @@
+// October 18, 2026
+
+// static helpers for boards stored as two 64-bit longs (one per side). bit index of a square is row * 8 + column
+
+public final class BitBoard {
+    public static final int BOARD_SIZE = 8;
+    public static final int SQUARES = BOARD_SIZE * BOARD_SIZE;
+
+    public static final long STARTING_FIRST_PLAYER_PIECES = (1L << 28) | (1L << 35);  // e4 & d5, first to move
+    public static final long STARTING_SECOND_PLAYER_PIECES = (1L << 27) | (1L << 36);  // d4 & e5
+
+    static final long NOT_A_FILE = 0xfefefefefefefefeL;  // every square except column A (column index 0)
+    static final long NOT_H_FILE = 0x7f7f7f7f7f7f7f7fL;  // every square except column H (column index 7)
+    static final long INNER_FILES = NOT_A_FILE & NOT_H_FILE;  // columns B - G, stops horizontal wrap around
+    private static final long ALL_SQUARES = -1L;
+
+    private BitBoard() {  // only static helpers, never instantiated
+    }
+
+    public static int square(int row, int column) {  // get bit index of square at row & column
+        return row * BOARD_SIZE + column;
+    }
+
+    public static String squareName(int square) {  // column letter and row number, e.g. square 19 is "d3"
+        return "" + (char) ('a' + square % BOARD_SIZE) + (square / BOARD_SIZE + 1);
+    }
+
+    public static int parseSquare(String name) {  // square from name like "d3" (either case), -1 if it isn't one
+        if (name.length() != 2) {
+            return -1;
+        }
+        int column = Character.toLowerCase(name.charAt(0)) - 'a';
+        int row = name.charAt(1) - '1';
+        return isOnBoard(row, column) ? square(row, column) : -1;
+    }
+
+    public static boolean isOnBoard(int row, int column) {  // true if row & column are inside the board
+        return row >= 0 && row < BOARD_SIZE && column >= 0 && column < BOARD_SIZE;
+    }
+
+    public static boolean contains(long mask, int row, int column) {  // true if square is on board and set in mask
+        return isOnBoard(row, column) && (mask & (1L << square(row, column))) != 0;
+    }
+
+    public static long legalMoves(long player, long opponent) {
+        /* return mask of every empty square where player could place a piece and flip at least one opponent piece.
+        fills from player's pieces over runs of opponent pieces in all 8 directions at once (6 steps is the longest
+        possible run), and any empty square at the end of a run is a legal move */
+        long empty = ~(player | opponent);
+        long horizontalOpponent = opponent & INNER_FILES;  // edge columns can't be inside a horizontal/diagonal run
+        return (movesLeftShift(player, opponent, 8)  // down
+                | movesRightShift(player, opponent, 8)  // up
+                | movesLeftShift(player, horizontalOpponent, 1)  // right
+                | movesRightShift(player, horizontalOpponent, 1)  // left
+                | movesLeftShift(player, horizontalOpponent, 7)  // down-left
+                | movesLeftShift(player, horizontalOpponent, 9)  // down-right
+                | movesRightShift(player, horizontalOpponent, 7)  // up-right
+                | movesRightShift(player, horizontalOpponent, 9))  // up-left
+                & empty;
+    }
+
+    public static long neighbourhood(long squares) {
+        // every square in mask or next to one in mask in any of 8 directions, e.g. frontier is pieces & this of empty
+        long rowNeighbourhood = squares | ((squares << 1) & NOT_A_FILE) | ((squares >>> 1) & NOT_H_FILE);
+        return rowNeighbourhood | (rowNeighbourhood << 8) | (rowNeighbourhood >>> 8);
+    }
+
+    private static long movesLeftShift(long player, long maskedOpponent, int shift) {
+        long run = maskedOpponent & (player << shift);
+        run |= maskedOpponent & (run << shift);
+        run |= maskedOpponent & (run << shift);
+        run |= maskedOpponent & (run << shift);
+        run |= maskedOpponent & (run << shift);
+        run |= maskedOpponent & (run << shift);
+        return run << shift;
+    }
+
+    private static long movesRightShift(long player, long maskedOpponent, int shift) {
+        long run = maskedOpponent & (player >>> shift);
+        run |= maskedOpponent & (run >>> shift);
+        run |= maskedOpponent & (run >>> shift);
+        run |= maskedOpponent & (run >>> shift);
+        run |= maskedOpponent & (run >>> shift);
+        run |= maskedOpponent & (run >>> shift);
+        return run >>> shift;
+    }
+
+    public static long flips(long player, long opponent, int square) {
+        /* return mask of opponent pieces that would be flipped if player placed piece on square.
+        returns 0 if square is occupied or move is illegal */
+        long move = 1L << square;
+        if (((player | opponent) & move) != 0) {
+            return 0;
+        }
+        return flipsLeftShift(move, player, opponent, 8, ALL_SQUARES)  // down
+                | flipsRightShift(move, player, opponent, 8, ALL_SQUARES)  // up
+                | flipsLeftShift(move, player, opponent, 1, NOT_A_FILE)  // right
+                | flipsRightShift(move, player, opponent, 1, NOT_H_FILE)  // left
+                | flipsLeftShift(move, player, opponent, 7, NOT_H_FILE)  // down-left
+                | flipsLeftShift(move, player, opponent, 9, NOT_A_FILE)  // down-right
+                | flipsRightShift(move, player, opponent, 7, NOT_A_FILE)  // up-right
+                | flipsRightShift(move, player, opponent, 9, NOT_H_FILE);  // up-left
+    }
+
+    private static long flipsLeftShift(long move, long player, long opponent, int shift, long landingMask) {
+        // walk from move over opponent pieces, keep them only if run is closed by one of player's pieces
+        long flipped = 0;
+        long cursor = (move << shift) & landingMask;
+        while ((cursor & opponent) != 0) {
+            flipped |= cursor;
+            cursor = (cursor << shift) & landingMask;
+        }
+        return (cursor & player) != 0 ? flipped : 0;
+    }
+
+    private static long flipsRightShift(long move, long player, long opponent, int shift, long landingMask) {
+        long flipped = 0;
+        long cursor = (move >>> shift) & landingMask;
+        while ((cursor & opponent) != 0) {
+            flipped |= cursor;
+            cursor = (cursor >>> shift) & landingMask;
+        }
+        return (cursor & player) != 0 ? flipped : 0;
+    }
+
+    public static final int SYMMETRIES = 8;  // rotations and reflections of the board
+
+    public static long transform(long pieces, int symmetry) {
+        /* return pieces under one of the 8 board symmetries. 0 is identity, 1-3 flip rows and/or columns,
+        4-7 are same after swapping rows with columns */
+        if ((symmetry & 4) != 0) {
+            pieces = transpose(pieces);
+        }
+        if ((symmetry & 2) != 0) {
+            pieces = mirrorColumns(pieces);
+        }
+        if ((symmetry & 1) != 0) {
+            pieces = Long.reverseBytes(pieces);  // each row is one byte, so this flips rows top to bottom
+        }
+        return pieces;
+    }
+
+    private static long mirrorColumns(long pieces) {  // reverse bits within each row (byte), column A <-> H
+        pieces = ((pieces >>> 1) & 0x5555555555555555L) | ((pieces & 0x5555555555555555L) << 1);
+        pieces = ((pieces >>> 2) & 0x3333333333333333L) | ((pieces & 0x3333333333333333L) << 2);
+        return ((pieces >>> 4) & 0x0f0f0f0f0f0f0f0fL) | ((pieces & 0x0f0f0f0f0f0f0f0fL) << 4);
+    }
+
+    private static long transpose(long pieces) {  // swap rows with columns, mirroring over A1-H8 diagonal
+        long swap = 0x0f0f0f0f00000000L & (pieces ^ (pieces << 28));
+        pieces ^= swap ^ (swap >>> 28);
+        swap = 0x3333000033330000L & (pieces ^ (pieces << 14));
+        pieces ^= swap ^ (swap >>> 14);
+        swap = 0x5500550055005500L & (pieces ^ (pieces << 7));
+        return pieces ^ swap ^ (swap >>> 7);
+    }
+
+    public static int canonicalSymmetry(long player, long opponent) {
+        /* return symmetry that maps position to its canonical form - smallest (player, opponent) of all 8
+        symmetric positions - so symmetric positions can share one entry in tables and books */
+        int bestSymmetry = 0;
+        long bestPlayer = player;
+        long bestOpponent = opponent;
+        for (int symmetry = 1; symmetry < SYMMETRIES; symmetry++) {
+            long symmetricPlayer = transform(player, symmetry);
+            int comparison = Long.compareUnsigned(symmetricPlayer, bestPlayer);
+            if (comparison < 0 || (comparison == 0
+                    && Long.compareUnsigned(transform(opponent, symmetry), bestOpponent) < 0)) {
+                bestSymmetry = symmetry;
+                bestPlayer = symmetricPlayer;
+                bestOpponent = transform(opponent, symmetry);
+            }
+        }
+        return bestSymmetry;
+    }
+}
@@ -0,0 +1,14 @@
+// October 18, 2026
+
+// simplest evaluation, difference in pieces with edge pieces counted twice (same preference for side pieces as
+// nextBestMove)
+
+public class DiscEvaluator implements Evaluator {
+    private static final long EDGES = 0xff818181818181ffL;
+
+    @Override
+    public int evaluate(long player, long opponent) {
+        return Long.bitCount(player) - Long.bitCount(opponent)
+                + Long.bitCount(player & EDGES) - Long.bitCount(opponent & EDGES);
+    }
+}
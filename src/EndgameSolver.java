@@ -0,0 +1,454 @@
+// October 18, 2026
+
+// exact endgame solver. with few empty squares left the game can be searched to the end, so instead of evaluating
+// positions this finds the move with the best final piece difference. solves win/loss/draw first (a null window
+// around 0, cheap) then the exact score inside the window that result allows. allocates nothing while solving.
+// not thread safe, every search thread needs its own solver.
+// usage: java EndgameSolver [--max-empties N] [--positions N] [--seed N] times solving random positions
+
+import java.util.Random;
+
+public class EndgameSolver {
+    public static final int DEFAULT_MAX_EMPTIES = 16;  // solves in under a second, each extra empty is ~2-3x slower
+    private static final int MAX_EMPTIES = 60;  // most empty squares possible once game starts
+    private static final int MAX_MOVES = 32;
+    private static final int NO_MOVE = -1;
+    private static final int MAX_SCORE = 64;  // largest final piece difference
+    private static final long CORNERS = 0x8100000000000081L;
+    private static final long[] QUADRANTS = {0x000000000f0f0f0fL, 0x00000000f0f0f0f0L, 0x0f0f0f0f00000000L,
+            0xf0f0f0f000000000L};
+    private static final int FASTEST_FIRST_EMPTIES = 7;  // sort moves by opponent's mobility from here up
+    private static final int LAST_EMPTIES = 4;  // from here down loop over empty squares without generating moves
+    private static final int TABLE_EMPTIES = 9;  // from here up results are kept in solver's table
+    private static final int TABLE_SIZE = 1 << 18;  // entries, power of two so index is a mask
+    private static final int NODES_BETWEEN_TIME_CHECKS = 4096;  // power of two, checked with a mask
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final int[][] moveBuffers = new int[MAX_EMPTIES + 1][MAX_MOVES];  // preallocated move lists per empties
+    private final int[][] orderScoreBuffers = new int[MAX_EMPTIES + 1][MAX_MOVES];
+
+    // table of solved bounds, always replaced. keyed by whole position, so entries stay correct from move to move
+    private final long[] tablePlayers = new long[TABLE_SIZE];
+    private final long[] tableOpponents = new long[TABLE_SIZE];
+    private final byte[] tableLowerBounds = new byte[TABLE_SIZE];  // final score is somewhere in lower to upper
+    private final byte[] tableUpperBounds = new byte[TABLE_SIZE];
+    private final byte[] tableMoves = new byte[TABLE_SIZE];
+
+    private long nodes;
+    private long deadline = NO_DEADLINE;
+    private boolean stopped;  // out of time, results of unfinished search are meaningless
+    private volatile boolean stopRequested;  // set from another thread to give up like running out of time
+
+    private int lastScore;  // final piece difference for player with best play from both sides
+    private int lastEmpties;
+    private long lastNodes;
+    private long lastSolveNanos;
+    private boolean lastSolveExact;  // false if only win/loss/draw was solved before time ran out
+
+    public static void main(String[] args) {
+        /* solve random positions reached by random play at each number of empty squares and report average solve
+        time and nodes, to pick an empties threshold for a per move latency */
+        int maxEmpties = DEFAULT_MAX_EMPTIES;
+        int positions = 10;
+        long seed = 1;
+        for (int argIndex = 0; argIndex < args.length; argIndex++) {
+            switch (args[argIndex]) {
+                case "--max-empties" -> maxEmpties = Integer.parseInt(args[++argIndex]);
+                case "--positions" -> positions = Integer.parseInt(args[++argIndex]);
+                case "--seed" -> seed = Long.parseLong(args[++argIndex]);
+                default -> throw new IllegalArgumentException("unexpected argument: " + args[argIndex]);
+            }
+        }
+        EndgameSolver solver = new EndgameSolver();
+        System.out.println("empties  avg ms   max ms   avg nodes  nodes/sec");
+        for (int empties = 4; empties <= maxEmpties; empties++) {
+            Random random = new Random(seed * 1_000_003 + empties);
+            long totalNanos = 0;
+            long maxNanos = 0;
+            long totalNodes = 0;
+            for (int positionIndex = 0; positionIndex < positions; positionIndex++) {
+                long[] position = randomPosition(random, empties);
+                solver.solve(position[0], position[1]);
+                totalNanos += solver.getLastSolveNanos();
+                maxNanos = Math.max(maxNanos, solver.getLastSolveNanos());
+                totalNodes += solver.getLastNodes();
+            }
+            System.out.printf("%7d %8.2f %8.2f %11d %10.0f%n", empties, totalNanos / 1e6 / positions, maxNanos / 1e6,
+                    totalNodes / positions, totalNodes * 1e9 / Math.max(1, totalNanos));
+        }
+    }
+
+    static long[] randomPosition(Random random, int empties) {
+        /* random play from starting board until empties are left with a player to move, retrying games that end
+        early. package private for EndgameSolverTest */
+        while (true) {
+            OthelloBoard board = new OthelloBoard();
+            long player = board.getPieces(Player.USER);
+            long opponent = board.getPieces(Player.PROGRAM);
+            while (Long.bitCount(~(player | opponent)) > empties) {
+                long legalMoves = BitBoard.legalMoves(player, opponent);
+                if (legalMoves == 0) {
+                    if (BitBoard.legalMoves(opponent, player) == 0) {
+                        break;
+                    }
+                } else {
+                    for (int skip = random.nextInt(Long.bitCount(legalMoves)); skip > 0; skip--) {
+                        legalMoves &= legalMoves - 1;
+                    }
+                    int move = Long.numberOfTrailingZeros(legalMoves);
+                    long flipped = BitBoard.flips(player, opponent, move);
+                    player |= flipped | (1L << move);
+                    opponent &= ~flipped;
+                }
+                long swap = player;
+                player = opponent;
+                opponent = swap;
+            }
+            if (Long.bitCount(~(player | opponent)) == empties && BitBoard.legalMoves(player, opponent) != 0) {
+                return new long[]{player, opponent};
+            }
+        }
+    }
+
+    public int solve(long player, long opponent) {  // overloaded method, solves without a time limit
+        return solve(player, opponent, NO_DEADLINE);
+    }
+
+    public int solve(long player, long opponent, long deadline) {
+        /* find best move for player to move by searching to end of game. deadline is System.nanoTime() to give up
+        at, or Long.MAX_VALUE for none. if time runs out after win/loss/draw is known, returns a move with that
+        result (isLastSolveExact() is false). returns -1 if player has no legal move or time ran out before anything
+        was solved */
+        long startTime = System.nanoTime();
+        this.deadline = deadline;
+        stopped = false;
+        nodes = 0;
+        lastEmpties = Long.bitCount(~(player | opponent));
+        lastSolveExact = false;
+        int bestMove = NO_MOVE;
+        if (BitBoard.legalMoves(player, opponent) != 0) {
+            // win/loss/draw with a window just around 0
+            int winLossDrawMove = solveRoot(player, opponent, -1, 1);
+            if (!stopped) {
+                bestMove = winLossDrawMove;
+                int winLossDraw = lastScore;
+                lastScore = Integer.signum(winLossDraw);
+                if (winLossDraw == 0) {
+                    lastSolveExact = true;  // score is exactly a draw, nothing left to solve
+                } else {
+                    // exact score, knowing which side of 0 it's on
+                    int exactMove = winLossDraw > 0 ? solveRoot(player, opponent, 0, MAX_SCORE + 1) :
+                            solveRoot(player, opponent, -MAX_SCORE - 1, 0);
+                    if (!stopped) {
+                        bestMove = exactMove;
+                        lastSolveExact = true;
+                    } else {
+                        lastScore = Integer.signum(winLossDraw);
+                    }
+                }
+            }
+        }
+        lastNodes = nodes;
+        lastSolveNanos = System.nanoTime() - startTime;
+        return bestMove;
+    }
+
+    int solveWindow(long player, long opponent, int alpha, int beta) {
+        /* one pass of solve() on its own, for EndgameSolverTest: best move with score searched in window (alpha,
+        beta), getLastScore() being a bound on score if it's outside window. (-1, 1) is win/loss/draw pass */
+        deadline = NO_DEADLINE;
+        stopped = false;
+        nodes = 0;
+        return solveRoot(player, opponent, alpha, beta);
+    }
+
+    public void requestStop() {
+        // make solve running on another thread (and every solve after, till clearStopRequest) give up as if out of time
+        stopRequested = true;
+    }
+
+    public void clearStopRequest() {
+        stopRequested = false;
+    }
+
+    public int getLastScore() {
+        /* final piece difference for player with best play, from last solve. only its sign (win 1, loss -1, draw 0)
+        if solve wasn't exact */
+        return lastScore;
+    }
+
+    public boolean isLastSolveExact() {
+        return lastSolveExact;
+    }
+
+    public int getLastEmpties() {  // empty squares in last position solved
+        return lastEmpties;
+    }
+
+    public long getLastNodes() {
+        return lastNodes;
+    }
+
+    public long getLastSolveNanos() {
+        return lastSolveNanos;
+    }
+
+    private int solveRoot(long player, long opponent, int alpha, int beta) {
+        // search root's moves in window, sets lastScore and returns best move
+        int empties = Long.bitCount(~(player | opponent));
+        int[] moves = moveBuffers[empties];
+        int moveCount = orderMoves(player, opponent, NO_MOVE, moves, orderScoreBuffers[empties]);
+        int bestMove = moves[0];
+        int bestScore = -MAX_SCORE - 1;
+        for (int moveIndex = 0; moveIndex < moveCount; moveIndex++) {
+            int move = moves[moveIndex];
+            long flipped = BitBoard.flips(player, opponent, move);
+            int score = -search(opponent & ~flipped, player | flipped | (1L << move), -beta, -alpha, empties - 1);
+            if (stopped) {
+                return NO_MOVE;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                alpha = Math.max(alpha, score);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        lastScore = bestScore;
+        return bestMove;
+    }
+
+    private int search(long player, long opponent, int alpha, int beta, int empties) {
+        /* negamax alpha-beta to end of game, returns final piece difference from player to move's point of view
+        (or a bound on it outside window). moves that leave opponent fewest replies are searched first, since they
+        are most likely best and their subtrees are smallest. bounds already solved for position narrow window */
+        if (empties <= LAST_EMPTIES) {
+            return solveLastEmpties(player, opponent, alpha, beta, empties, false);
+        }
+        if ((++nodes & (NODES_BETWEEN_TIME_CHECKS - 1)) == 0 && (stopRequested || System.nanoTime() > deadline)) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (empties < FASTEST_FIRST_EMPTIES) {
+            return solveByParity(player, opponent, alpha, beta, empties);
+        }
+        int tableIndex = -1;
+        int tableMove = NO_MOVE;
+        if (empties >= TABLE_EMPTIES) {
+            tableIndex = tableIndex(player, opponent);
+            if (tablePlayers[tableIndex] == player && tableOpponents[tableIndex] == opponent) {
+                int lowerBound = tableLowerBounds[tableIndex];
+                int upperBound = tableUpperBounds[tableIndex];
+                if (lowerBound >= beta || lowerBound == upperBound) {
+                    return lowerBound;
+                }
+                if (upperBound <= alpha) {
+                    return upperBound;
+                }
+                alpha = Math.max(alpha, lowerBound);
+                beta = Math.min(beta, upperBound);
+                tableMove = tableMoves[tableIndex];
+            }
+        }
+        int[] moves = moveBuffers[empties];
+        int moveCount = orderMoves(player, opponent, tableMove, moves, orderScoreBuffers[empties]);
+        if (moveCount == 0) {
+            if (BitBoard.legalMoves(opponent, player) == 0) {
+                return finalScore(player, opponent);
+            }
+            return -search(opponent, player, -beta, -alpha, empties);  // pass
+        }
+        int originalAlpha = alpha;
+        int bestScore = -MAX_SCORE - 1;
+        int bestMove = NO_MOVE;
+        for (int moveIndex = 0; moveIndex < moveCount; moveIndex++) {
+            int move = moves[moveIndex];
+            long flipped = BitBoard.flips(player, opponent, move);
+            long newPlayer = player | flipped | (1L << move);
+            long newOpponent = opponent & ~flipped;
+            int score;
+            if (moveIndex == 0) {
+                score = -search(newOpponent, newPlayer, -beta, -alpha, empties - 1);
+            } else {  // prove move is no better with a null window, re-search only if it is
+                score = -search(newOpponent, newPlayer, -alpha - 1, -alpha, empties - 1);
+                if (score > alpha && score < beta) {
+                    score = -search(newOpponent, newPlayer, -beta, -alpha, empties - 1);
+                }
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (tableIndex >= 0 && !stopped) {
+            store(tableIndex, player, opponent, bestScore > originalAlpha ? bestScore : -MAX_SCORE,
+                    bestScore < beta ? bestScore : MAX_SCORE, bestMove);
+        }
+        return bestScore;
+    }
+
+    private static int tableIndex(long player, long opponent) {
+        long mixed = (player * 0x9e3779b97f4a7c15L) ^ (opponent * 0xc2b2ae3d27d4eb4fL);
+        return (int) (mixed >>> 46) & (TABLE_SIZE - 1);
+    }
+
+    private void store(int tableIndex, long player, long opponent, int lowerBound, int upperBound, int bestMove) {
+        // store bounds for position, tightening bounds already there for same position
+        if (tablePlayers[tableIndex] == player && tableOpponents[tableIndex] == opponent) {
+            lowerBound = Math.max(lowerBound, tableLowerBounds[tableIndex]);
+            upperBound = Math.min(upperBound, tableUpperBounds[tableIndex]);
+        }
+        tablePlayers[tableIndex] = player;
+        tableOpponents[tableIndex] = opponent;
+        tableLowerBounds[tableIndex] = (byte) lowerBound;
+        tableUpperBounds[tableIndex] = (byte) upperBound;
+        tableMoves[tableIndex] = (byte) bestMove;
+    }
+
+    private int solveByParity(long player, long opponent, int alpha, int beta, int empties) {
+        /* few empties left, sorting moves costs more than it saves. moves in quadrants with an odd number of empty
+        squares go first, so player tends to get last move in each region */
+        long legalMoves = BitBoard.legalMoves(player, opponent);
+        if (legalMoves == 0) {
+            if (BitBoard.legalMoves(opponent, player) == 0) {
+                return finalScore(player, opponent);
+            }
+            return -search(opponent, player, -beta, -alpha, empties);  // pass
+        }
+        long oddMoves = legalMoves & oddQuadrants(~(player | opponent));
+        int bestScore = -MAX_SCORE - 1;
+        for (long movesLeft = oddMoves, otherMoves = legalMoves & ~oddMoves; movesLeft != 0 || otherMoves != 0; ) {
+            if (movesLeft == 0) {  // odd quadrants done, now the rest
+                movesLeft = otherMoves;
+                otherMoves = 0;
+            }
+            int move = Long.numberOfTrailingZeros(movesLeft);
+            movesLeft &= movesLeft - 1;
+            long flipped = BitBoard.flips(player, opponent, move);
+            int score = -search(opponent & ~flipped, player | flipped | (1L << move), -beta, -alpha, empties - 1);
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    private int solveLastEmpties(long player, long opponent, int alpha, int beta, int empties, boolean passed) {
+        /* last few empties. tries flipping at each empty square directly instead of generating legal moves, odd
+        quadrants first, and scores last empty square without making the move. passed is true if opponent just
+        passed, so if player can't move either game is over */
+        nodes++;
+        long emptySquares = ~(player | opponent);
+        if (empties == 1) {
+            return solveLastEmpty(player, opponent, Long.numberOfTrailingZeros(emptySquares));
+        }
+        long oddSquares = emptySquares & oddQuadrants(emptySquares);
+        int bestScore = -MAX_SCORE - 1;
+        for (long squaresLeft = oddSquares, otherSquares = emptySquares & ~oddSquares;
+             squaresLeft != 0 || otherSquares != 0; ) {
+            if (squaresLeft == 0) {
+                squaresLeft = otherSquares;
+                otherSquares = 0;
+            }
+            int square = Long.numberOfTrailingZeros(squaresLeft);
+            squaresLeft &= squaresLeft - 1;
+            long flipped = BitBoard.flips(player, opponent, square);
+            if (flipped == 0) {  // not a legal move
+                continue;
+            }
+            int score = -solveLastEmpties(opponent & ~flipped, player | flipped | (1L << square), -beta, -alpha,
+                    empties - 1, false);
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (bestScore == -MAX_SCORE - 1) {  // no legal move
+            if (passed) {
+                return finalScore(player, opponent);  // both players passed, game is over
+            }
+            return -solveLastEmpties(opponent, player, -beta, -alpha, empties, true);
+        }
+        return bestScore;
+    }
+
+    private int solveLastEmpty(long player, long opponent, int square) {
+        // final piece difference after last empty square is played, by player if legal, otherwise by opponent
+        nodes++;
+        int pieceDifference = Long.bitCount(player) - Long.bitCount(opponent);
+        long flipped = BitBoard.flips(player, opponent, square);
+        if (flipped != 0) {
+            return pieceDifference + 2 * Long.bitCount(flipped) + 1;
+        }
+        flipped = BitBoard.flips(opponent, player, square);
+        if (flipped != 0) {
+            return pieceDifference - 2 * Long.bitCount(flipped) - 1;
+        }
+        return pieceDifference;  // nobody can play it, game ends with square empty
+    }
+
+    private int orderMoves(long player, long opponent, int tableMove, int[] moves, int[] orderScores) {
+        /* write legal moves into buffer, table's best move first, then fewest opponent replies first with corners
+        before anything else. returns number of moves */
+        long legalMoves = BitBoard.legalMoves(player, opponent);
+        int moveCount = 0;
+        while (legalMoves != 0) {
+            int move = Long.numberOfTrailingZeros(legalMoves);
+            legalMoves &= legalMoves - 1;
+            long flipped = BitBoard.flips(player, opponent, move);
+            int orderScore = -Long.bitCount(BitBoard.legalMoves(opponent & ~flipped, player | flipped | (1L << move)));
+            if ((CORNERS & (1L << move)) != 0) {
+                orderScore += MAX_MOVES;
+            }
+            if (move == tableMove) {
+                orderScore += 2 * MAX_MOVES;
+            }
+            // insertion sort by order score, highest first. move lists are short so this is cheapest
+            int insertAt = moveCount;
+            while (insertAt > 0 && orderScores[insertAt - 1] < orderScore) {
+                moves[insertAt] = moves[insertAt - 1];
+                orderScores[insertAt] = orderScores[insertAt - 1];
+                insertAt--;
+            }
+            moves[insertAt] = move;
+            orderScores[insertAt] = orderScore;
+            moveCount++;
+        }
+        return moveCount;
+    }
+
+    private static long oddQuadrants(long emptySquares) {  // union of quadrants holding an odd number of empties
+        long oddQuadrants = 0;
+        for (long quadrant : QUADRANTS) {
+            if ((Long.bitCount(emptySquares & quadrant) & 1) != 0) {
+                oddQuadrants |= quadrant;
+            }
+        }
+        return oddQuadrants;
+    }
+
+    private static int finalScore(long player, long opponent) {  // game is over, pieces left empty count for nobody
+        return Long.bitCount(player) - Long.bitCount(opponent);
+    }
+}
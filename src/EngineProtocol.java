@@ -0,0 +1,406 @@
+// October 18, 2026
+
+// engine driven over standard input and output by a GUI or test rig, in the NBoard protocol (one command per line, no
+// prompts). one engine is kept for the whole run, so its transposition table stays warm from move to move and game to
+// game, and it ponders while its opponent thinks.
+// usage: java EngineProtocol [--depth N] [--threads N] [--hash-megabytes N] [--no-ponder]
+// moves are squares like "f5" (either case) or "PA" to pass. black ("*" in GGF, x in GamePosition) moves first.
+// commands (NBoard's, plus extras marked +):
+//   nboard <version>         -> set myname <name>
+//   set depth <N>            search depth for go and hint
+//   set movetime <ms>      + time limit for go and hint, 0 for none (default)
+//   set game <GGF>           start from position at end of game, e.g. (;GM[Othello]BO[8 <64 squares> *]B[f5]W[d6];)
+//   set position <P>       + start from position P in GamePosition's text form
+//   set contempt <N>         accepted and ignored
+//   move <move>[/...]        play move for player to move (eval and time after the move are ignored)
+//   go [depth N] [movetime ms]  + limits for this search only
+//                            -> === <move>/<eval>/<seconds>, then nodestats <nodes> <seconds>. engine's move isn't
+//                               played on its board, the GUI sends it back with move like any other
+//   hint <N>                 -> search <move> <eval> 0 <depth> for N best moves (best first) after every ply of
+//                               depth, then nodestats. search PA ... if player to move has to pass
+//   stop                   + finish search now, its reply comes with best move of deepest finished iteration
+//   ping <N>                 finish any search, then -> pong <N>
+//   learn                    -> learned (nothing to learn)
+//   quit                     exit
+// go and hint search in the background so stop and ping are read while searching, any other command waits for the
+// search to finish first. eval is from player to move's point of view: final piece difference once search sees end of
+// game, otherwise engine's evaluation (not in pieces). problems are reported with status <reason>
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class EngineProtocol {
+    private static final String NAME = "OthelloGame";
+    private static final int PROTOCOL_VERSION = 2;
+    private static final int NO_MOVE = -1;
+    private static final GamePosition STARTING_POSITION = new GamePosition(BitBoard.STARTING_FIRST_PLAYER_PIECES,
+            BitBoard.STARTING_SECOND_PLAYER_PIECES, true);
+
+    private final SearchEngine engine;
+    private final Ponderer ponderer;  // null if not pondering
+    private final PrintWriter out;
+    private GamePosition position = STARTING_POSITION;
+    private int searchDepth;
+    private long timeLimitMillis;  // 0 for no limit
+    private Thread searchThread;  // go or hint running in background, null if none
+    private boolean engineMovedFirstPlayer;  // color engine last played a move for, it ponders when other is to move
+    private boolean engineHasMoved;
+
+    public EngineProtocol(SearchEngine engine, int searchDepth, boolean ponder, PrintWriter out) {
+        this.engine = engine;
+        this.searchDepth = searchDepth;
+        this.out = out;
+        ponderer = ponder ? new Ponderer(engine) : null;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int searchDepth = OthelloBoard.getSearchDepth(GameDifficulty.HARD);
+        int threads = 1;
+        int hashMegabytes = 64;
+        boolean ponder = true;
+        for (int argIndex = 0; argIndex < args.length; argIndex++) {
+            switch (args[argIndex]) {
+                case "--depth" -> searchDepth = Integer.parseInt(args[++argIndex]);
+                case "--threads" -> threads = Integer.parseInt(args[++argIndex]);
+                case "--hash-megabytes" -> hashMegabytes = Integer.parseInt(args[++argIndex]);
+                case "--no-ponder" -> ponder = false;
+                default -> {
+                    System.err.println("usage: java EngineProtocol [--depth N] [--threads N] [--hash-megabytes N] "
+                            + "[--no-ponder]");
+                    return;
+                }
+            }
+        }
+        try (SearchEngine engine = new SearchEngine(hashMegabytes, threads)) {
+            PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out,
+                    StandardCharsets.US_ASCII)));
+            new EngineProtocol(engine, searchDepth, ponder, out).run(new BufferedReader(new InputStreamReader(System.in,
+                    StandardCharsets.US_ASCII)));
+        }
+    }
+
+    public void run(BufferedReader in) throws IOException {
+        // answer commands until quit or end of input
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!handle(line.trim())) {
+                    return;
+                }
+            }
+        } finally {
+            if (ponderer != null) {
+                ponderer.stop();
+            }
+            if (searchThread != null) {
+                engine.requestStop();
+                finishSearch();
+            }
+        }
+    }
+
+    private boolean handle(String line) {
+        // run one command, false once it's time to quit
+        if (line.isEmpty()) {
+            return true;
+        }
+        String[] words = line.split("\\s+");
+        String command = words[0].toLowerCase();
+        switch (command) {  // commands that don't wait for search
+            case "stop" -> {
+                if (searchThread != null) {
+                    engine.requestFinish();
+                }
+                return true;
+            }
+            case "ping" -> {
+                if (searchThread != null) {
+                    engine.requestFinish();
+                }
+                finishSearch();
+                send("pong" + (words.length > 1 ? " " + words[1] : ""));
+                return true;
+            }
+            case "quit" -> {
+                return false;
+            }
+            default -> finishSearch();
+        }
+        try {
+            switch (command) {
+                case "nboard" -> {
+                    if (words.length < 2 || !words[1].equals(String.valueOf(PROTOCOL_VERSION))) {
+                        send("status expected nboard " + PROTOCOL_VERSION);
+                    }
+                    send("set myname " + NAME);
+                }
+                case "set" -> set(words, line);
+                case "move" -> {
+                    requireArguments(words, 2, "move <move>");
+                    setPosition(position.play(parseMove(words[1])));
+                }
+                case "go" -> go(words);
+                case "hint" -> hint(words);
+                case "learn" -> send("learned");
+                default -> send("status unknown command " + words[0]);
+            }
+        } catch (IllegalArgumentException e) {
+            send("status " + e.getMessage());
+        }
+        return true;
+    }
+
+    private void set(String[] words, String line) {
+        requireArguments(words, 3, "set <name> <value>");
+        switch (words[1].toLowerCase()) {
+            case "depth" -> searchDepth = parsePositive(words[2]);
+            case "movetime" -> timeLimitMillis = Long.parseLong(words[2]);
+            case "game" -> setPosition(parseGame(line.split("\\s+", 3)[2]));
+            case "position" -> setPosition(GamePosition.parse(line.split("\\s+", 3)[2]));
+            case "contempt" -> {
+                // engine has no notion of contempt
+            }
+            default -> send("status unknown setting " + words[1]);
+        }
+    }
+
+    private void go(String[] words) {
+        // search for player to move with settings, or with depth and movetime given after go
+        int depth = searchDepth;
+        long timeLimit = timeLimitMillis;
+        for (int wordIndex = 1; wordIndex < words.length; wordIndex++) {
+            requireArguments(words, wordIndex + 2, "go [depth N] [movetime ms]");
+            switch (words[wordIndex].toLowerCase()) {
+                case "depth" -> depth = parsePositive(words[++wordIndex]);
+                case "movetime" -> timeLimit = Long.parseLong(words[++wordIndex]);
+                default -> throw new IllegalArgumentException("expected go [depth N] [movetime ms]");
+            }
+        }
+        long player = position.getPlayerPieces();
+        long opponent = position.getOpponentPieces();
+        if (BitBoard.legalMoves(player, opponent) == 0) {
+            send(BitBoard.legalMoves(opponent, player) == 0 ? "status game is over" : "=== PA");
+            return;
+        }
+        engineMovedFirstPlayer = position.isFirstPlayerToMove();
+        engineHasMoved = true;
+        if (ponderer != null) {
+            int ponderedMove = ponderer.findMove(player, opponent, depth);
+            if (ponderedMove != NO_MOVE) {  // searched on opponent's time
+                SearchStatistics statistics = ponderer.getLastHitStatistics();
+                send("=== " + formatMove(ponderedMove) + "/" + formatScore(statistics.getScore()) + "/0.00");
+                send(nodeStats(statistics));
+                return;
+            }
+        }
+        startSearch(position, depth, timeLimit, 0);
+    }
+
+    private void hint(String[] words) {
+        // rank player to move's best moves with settings. like go, a finished game gets a status instead of a search
+        int hintMoves = words.length > 1 ? parsePositive(words[1]) : 1;
+        if (BitBoard.legalMoves(position.getPlayerPieces(), position.getOpponentPieces()) == 0
+                && BitBoard.legalMoves(position.getOpponentPieces(), position.getPlayerPieces()) == 0) {
+            send("status game is over");
+            return;
+        }
+        startSearch(position, searchDepth, timeLimitMillis, hintMoves);
+    }
+
+    private void startSearch(GamePosition searched, int depth, long timeLimit, int hintMoves) {
+        // search in background for go, or for hint's best hintMoves moves if above 0. search thread sends reply
+        if (ponderer != null) {
+            ponderer.stop();
+        }
+        engine.clearStopRequest();  // before thread starts, so a stop right after go can't be lost
+        searchThread = new Thread(() -> {
+            if (hintMoves > 0) {
+                hint(searched, depth, timeLimit, hintMoves);
+            } else {
+                search(searched, depth, timeLimit);
+            }
+        }, "search");
+        searchThread.setDaemon(true);
+        searchThread.start();
+    }
+
+    private void search(GamePosition searched, int depth, long timeLimit) {
+        // runs on search thread
+        int move = engine.findBestMove(searched.getPlayerPieces(), searched.getOpponentPieces(),
+                searched.getPlayerColor(), depth, timeLimit);
+        if (move == NO_MOVE) {  // no legal move, or stopped by quit
+            return;
+        }
+        SearchStatistics statistics = engine.getLastStatistics();
+        send(String.format("=== %s/%s/%.2f", formatMove(move), formatScore(statistics.getScore()),
+                statistics.getWallNanos() / 1e9), nodeStats(statistics));
+    }
+
+    private void hint(GamePosition searched, int depth, long timeLimit, int hintMoves) {
+        /* runs on search thread, ranks every move and sends best ones after each ply, so GUI can show them right away.
+        a player who has to pass gets pass as their one move, scored by searching opponent's reply */
+        if (BitBoard.legalMoves(searched.getPlayerPieces(), searched.getOpponentPieces()) == 0) {
+            GamePosition passed = searched.play(NO_MOVE);
+            if (engine.findBestMove(passed.getPlayerPieces(), passed.getOpponentPieces(), passed.getPlayerColor(),
+                    depth, timeLimit) == NO_MOVE) {
+                return;  // stopped by quit
+            }
+            SearchStatistics statistics = engine.getLastStatistics();
+            send("search PA " + formatScore(-statistics.getScore()) + " 0 " + statistics.getDepth(),
+                    nodeStats(statistics));
+            return;
+        }
+        List<MoveAnalysis> ranking = engine.analyzeMoves(searched.getPlayerPieces(), searched.getOpponentPieces(),
+                searched.getPlayerColor(), depth, timeLimit, iteration -> {
+                    String[] lines = new String[Math.min(hintMoves, iteration.size())];
+                    for (int rank = 0; rank < lines.length; rank++) {
+                        MoveAnalysis analysis = iteration.get(rank);
+                        lines[rank] = "search " + formatMove(analysis.getMove()) + " "
+                                + formatScore(analysis.getScore()) + " 0 " + analysis.getDepth();
+                    }
+                    send(lines);
+                });
+        if (!ranking.isEmpty()) {
+            send(nodeStats(engine.getLastStatistics()));
+        }
+    }
+
+    private static String nodeStats(SearchStatistics statistics) {
+        return String.format("nodestats %d %.2f", statistics.getNodes(), statistics.getWallNanos() / 1e9);
+    }
+
+    private void finishSearch() {  // wait for search in background to send its reply
+        if (searchThread == null) {
+            return;
+        }
+        boolean interrupted = false;
+        while (searchThread.isAlive()) {
+            try {
+                searchThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        searchThread = null;
+        engine.clearStopRequest();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void setPosition(GamePosition newPosition) {
+        /* change position, pondering engine's reply if it's now opponent's turn. ponderer stops on its own when
+        asked for a different position */
+        position = newPosition;
+        if (ponderer == null || !engineHasMoved || position.isFirstPlayerToMove() == engineMovedFirstPlayer) {
+            return;
+        }
+        long opponent = position.getPlayerPieces();  // opponent of engine, to move
+        long player = position.getOpponentPieces();
+        if (BitBoard.legalMoves(opponent, player) != 0) {
+            ponderer.start(opponent, player, 1 - position.getPlayerColor(), searchDepth);
+        }
+    }
+
+    private synchronized void send(String... lines) {  // from main thread and search thread, never interleaved
+        for (String line : lines) {
+            out.println(line);
+        }
+        out.flush();
+    }
+
+    static GamePosition parseGame(String game) {
+        /* position at end of a game in GGF, as NBoard sends it: board from BO[8 <squares> <player to move>] (squares
+        '*' black, 'O' white, '-' empty, spaces between rows allowed), then moves in B[...] and W[...] tags.
+        other tags are skipped. a move out of turn is taken to follow a pass */
+        GamePosition gamePosition = null;
+        int index = 0;
+        int open;
+        while ((open = game.indexOf('[', index)) >= 0) {
+            int close = game.indexOf(']', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("unclosed tag in game");
+            }
+            int nameStart = open;
+            while (nameStart > index && Character.isUpperCase(game.charAt(nameStart - 1))) {
+                nameStart--;
+            }
+            String value = game.substring(open + 1, close);
+            switch (game.substring(nameStart, open)) {
+                case "BO" -> gamePosition = parseGgfBoard(value);
+                case "B", "W" -> {
+                    if (gamePosition == null) {
+                        throw new IllegalArgumentException("move before board in game");
+                    }
+                    boolean blackMove = game.charAt(nameStart) == 'B';
+                    if (blackMove != gamePosition.isFirstPlayerToMove()) {
+                        gamePosition = gamePosition.play(NO_MOVE);  // throws if player out of turn had a move
+                    }
+                    gamePosition = gamePosition.play(parseMove(value));
+                }
+                default -> {
+                    // game information, times, results
+                }
+            }
+            index = close + 1;
+        }
+        if (gamePosition == null) {
+            throw new IllegalArgumentException("game has no board");
+        }
+        return gamePosition;
+    }
+
+    private static GamePosition parseGgfBoard(String board) {  // value of BO tag
+        String squares = board.replaceAll("\\s+", "");
+        if (!squares.startsWith("8") || squares.length() != 1 + BitBoard.SQUARES + 1) {
+            throw new IllegalArgumentException("board isn't 8 by 8 in game");
+        }
+        String text = squares.substring(1).replace('*', 'x');
+        return GamePosition.parse(text.substring(0, BitBoard.SQUARES) + " " + text.charAt(BitBoard.SQUARES));
+    }
+
+    private static int parseMove(String text) {  // square of move like "f5" or "F5/1.50/0.2", -1 for a pass
+        String move = text.contains("/") ? text.substring(0, text.indexOf('/')) : text;
+        if (move.equalsIgnoreCase("PA") || move.equalsIgnoreCase("pass")) {
+            return NO_MOVE;
+        }
+        int square = BitBoard.parseSquare(move);
+        if (square < 0) {
+            throw new IllegalArgumentException("not a move: " + text);
+        }
+        return square;
+    }
+
+    private static String formatMove(int move) {
+        return move == NO_MOVE ? "PA" : BitBoard.squareName(move).toUpperCase();
+    }
+
+    private static String formatScore(int score) {  // final piece difference for a score from end of game
+        if (score > Evaluator.MAX_SCORE) {
+            return String.valueOf(score - SearchEngine.WIN_SCORE);
+        } else if (score < -Evaluator.MAX_SCORE) {
+            return String.valueOf(score + SearchEngine.WIN_SCORE);
+        }
+        return String.valueOf(score);
+    }
+
+    private static int parsePositive(String text) {
+        int value = Integer.parseInt(text);
+        if (value < 1) {
+            throw new IllegalArgumentException("expected a number above 0: " + text);
+        }
+        return value;
+    }
+
+    private static void requireArguments(String[] words, int count, String usage) {
+        if (words.length < count) {
+            throw new IllegalArgumentException("expected " + usage);
+        }
+    }
+}
@@ -0,0 +1,437 @@
+// October 18, 2026
+
+// fits PatternEvaluator's weights to recorded games. every position of the games in one or more game logs (see
+// GameRecordWriter; Tournament --game-log records self-play games) is labelled with how the game ended for player to
+// move, and weights are fitted so evaluation predicts it, taking sigmoid(evaluation / scale) as player's chance of
+// winning. scale is fitted first so starting weights keep their meaning, then mini-batch gradient descent minimizes
+// cross entropy, each weight's step divided by how much its batch positions say about it (so rare patterns don't
+// jump around). every batch is split across threads, each adding up gradients into its own table, then tables are
+// summed a slice of weights per thread.
+// positions are stored once, as pattern indexes and term values in flat primitive arrays (about 75 bytes a
+// position, so tens of millions fit in a few GB). every 20th game is held out to measure fit, and weights of the
+// epoch that fit held out games best are written as a weight file, which the game loads at startup.
+// usage: java EvaluationTuner [--epochs N] [--batch N] [--rate X] [--scale X] [--threads N] [--skip-plies N]
+//                             [--max-positions N] [--start file] [--output file] gamelog...
+// starts from default weights (othello.weights if it exists, hand made otherwise) or --start's file, and writes
+// othello.weights unless --output says otherwise
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class EvaluationTuner {
+    private static final int INSTANCES = PatternEvaluator.PATTERN_INSTANCES;
+    private static final int STAGES = PatternEvaluator.STAGES;
+    private static final int PATTERN_WEIGHTS = STAGES * PatternEvaluator.STAGE_SIZE;
+    private static final int TERMS = 3;  // mobility, frontier, piece, weights after pattern weights, stage by stage
+    private static final int WEIGHTS = PATTERN_WEIGHTS + TERMS * STAGES;
+    private static final int VALIDATION_GAMES = 20;  // every this many games one is held out
+    private static final double STEP_PRIOR = 4;  // added to step's divisor, worth 16 even positions
+    private static final int WEIGHTS_PER_POSITION = INSTANCES + TERMS;  // a position moves this many weights at once
+    private static final int SCALE_SAMPLE = 1 << 20;  // positions scale is fitted on
+
+    private final Positions training;
+    private final Positions validation;
+    private final int threads;
+    private final ExecutorService executor;
+    private final float[] weights = new float[WEIGHTS];
+    private final float[][] gradients;  // per thread, sum of loss gradient by weight over thread's share of batch
+    private final float[][] curvatures;  // per thread, sum of loss curvature by weight
+    private double scale;
+
+    public EvaluationTuner(Positions training, Positions validation, PatternEvaluator start, int threads) {
+        this.training = training;
+        this.validation = validation;
+        this.threads = threads;
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tuner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        short[] patternWeights = start.getPatternWeights();
+        for (int weight = 0; weight < PATTERN_WEIGHTS; weight++) {
+            weights[weight] = patternWeights[weight];
+        }
+        int[][] termWeights = {start.getMobilityWeights(), start.getFrontierWeights(), start.getPieceWeights()};
+        for (int term = 0; term < TERMS; term++) {
+            for (int stage = 0; stage < STAGES; stage++) {
+                weights[termWeight(stage, term)] = termWeights[term][stage];
+            }
+        }
+        gradients = new float[threads][WEIGHTS];
+        curvatures = new float[threads][WEIGHTS];
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        int epochs = 20;
+        int batch = 16384;
+        double rate = 1;
+        double scale = 0;  // 0 to fit it
+        int threads = Runtime.getRuntime().availableProcessors();
+        int skipPlies = 0;
+        long maxPositions = Positions.MAX_POSITIONS;
+        Path start = null;
+        Path output = Path.of(PatternEvaluator.DEFAULT_PATH);
+        List<Path> gameLogs = new ArrayList<>();
+        for (int argIndex = 0; argIndex < args.length; argIndex++) {
+            switch (args[argIndex]) {
+                case "--epochs" -> epochs = Integer.parseInt(args[++argIndex]);
+                case "--batch" -> batch = Integer.parseInt(args[++argIndex]);
+                case "--rate" -> rate = Double.parseDouble(args[++argIndex]);
+                case "--scale" -> scale = Double.parseDouble(args[++argIndex]);
+                case "--threads" -> threads = Integer.parseInt(args[++argIndex]);
+                case "--skip-plies" -> skipPlies = Integer.parseInt(args[++argIndex]);
+                case "--max-positions" -> maxPositions = Long.parseLong(args[++argIndex]);
+                case "--start" -> start = Path.of(args[++argIndex]);
+                case "--output" -> output = Path.of(args[++argIndex]);
+                default -> gameLogs.add(Path.of(args[argIndex]));
+            }
+        }
+        if (gameLogs.isEmpty()) {
+            System.out.println("usage: java EvaluationTuner [--epochs N] [--batch N] [--rate X] [--scale X] "
+                    + "[--threads N] [--skip-plies N] [--max-positions N] [--start file] [--output file] gamelog...");
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        Positions[] sets = Positions.read(gameLogs, skipPlies, Math.min(maxPositions, Positions.MAX_POSITIONS));
+        System.out.printf("read %,d training and %,d held out positions in %.1f sec%n", sets[0].size(),
+                sets[1].size(), (System.nanoTime() - startTime) / 1e9);
+        if (sets[0].size() == 0 || sets[1].size() == 0) {
+            System.out.println("not enough positions to fit weights");
+            return;
+        }
+        PatternEvaluator startWeights = start == null ? PatternEvaluator.getDefault() : PatternEvaluator.load(start);
+        EvaluationTuner tuner = new EvaluationTuner(sets[0], sets[1], startWeights, threads);
+        tuner.scale = scale > 0 ? scale : tuner.fitScale();
+        System.out.printf("scale %.1f, held out loss %.5f at start%n", tuner.scale, tuner.loss(tuner.validation));
+        PatternEvaluator fitted = tuner.fit(epochs, batch, rate);
+        fitted.write(output);
+        System.out.printf("wrote %s in %.1f sec%n", output, (System.nanoTime() - startTime) / 1e9);
+    }
+
+    public PatternEvaluator fit(int epochs, int batch, double rate) throws InterruptedException, ExecutionException {
+        /* run epochs passes of mini-batch gradient descent over training positions in random order, and return
+        evaluator with weights of the epoch with lowest held out loss (stopping once it's gone up 2 epochs in a row) */
+        int[] order = new int[training.size()];
+        for (int position = 0; position < order.length; position++) {
+            order[position] = position;
+        }
+        Random random = new Random(1);
+        float[] bestWeights = weights.clone();
+        double bestLoss = loss(validation);
+        int worseEpochs = 0;
+        for (int epoch = 1; epoch <= epochs && worseEpochs < 2; epoch++) {
+            long epochStart = System.nanoTime();
+            for (int position = order.length - 1; position > 0; position--) {  // shuffle
+                int other = random.nextInt(position + 1);
+                int swap = order[position];
+                order[position] = order[other];
+                order[other] = swap;
+            }
+            double trainingLoss = 0;
+            for (int batchStart = 0; batchStart < order.length; batchStart += batch) {
+                trainingLoss += step(order, batchStart, Math.min(order.length, batchStart + batch), rate);
+            }
+            double validationLoss = loss(validation);
+            System.out.printf("epoch %d: training loss %.5f, held out loss %.5f (%.1f sec)%n", epoch,
+                    trainingLoss / order.length, validationLoss, (System.nanoTime() - epochStart) / 1e9);
+            if (validationLoss < bestLoss) {
+                bestLoss = validationLoss;
+                System.arraycopy(weights, 0, bestWeights, 0, WEIGHTS);
+                worseEpochs = 0;
+            } else {
+                worseEpochs++;
+            }
+        }
+        return toEvaluator(bestWeights);
+    }
+
+    private double step(int[] order, int batchStart, int batchEnd, double rate)
+            throws InterruptedException, ExecutionException {
+        // one gradient step on positions order[batchStart..batchEnd), returns their summed loss before it
+        List<Callable<Double>> tasks = new ArrayList<>(threads);
+        for (int thread = 0; thread < threads; thread++) {
+            int threadIndex = thread;
+            int from = batchStart + (int) ((long) (batchEnd - batchStart) * thread / threads);
+            int to = batchStart + (int) ((long) (batchEnd - batchStart) * (thread + 1) / threads);
+            tasks.add(() -> accumulate(order, from, to, gradients[threadIndex], curvatures[threadIndex]));
+        }
+        double loss = sum(executor.invokeAll(tasks));
+        List<Callable<Void>> updates = new ArrayList<>(threads);
+        for (int thread = 0; thread < threads; thread++) {
+            int from = (int) ((long) WEIGHTS * thread / threads);
+            int to = (int) ((long) WEIGHTS * (thread + 1) / threads);
+            updates.add(() -> update(from, to, rate));
+        }
+        for (Future<Void> update : executor.invokeAll(updates)) {
+            update.get();  // rethrows a failed update
+        }
+        return loss;
+    }
+
+    private double accumulate(int[] order, int from, int to, float[] gradient, float[] curvature) {
+        /* add gradient and curvature of cross entropy loss (by evaluation: (p - result) / scale and
+        p (1 - p) / scale^2, times each weight's input) of positions order[from..to), returns their summed loss.
+        both are kept in units of scale, update() scales them back */
+        int[] indexes = new int[INSTANCES];
+        double loss = 0;
+        for (int orderIndex = from; orderIndex < to; orderIndex++) {
+            int position = order[orderIndex];
+            training.getWeightIndexes(position, indexes);
+            double probability = sigmoid(evaluate(training, position, indexes) / scale);
+            double result = training.getResult(position);
+            loss += crossEntropy(probability, result);
+            float error = (float) (probability - result);
+            float certainty = (float) (probability * (1 - probability));
+            for (int index : indexes) {
+                gradient[index] += error;
+                curvature[index] += certainty;
+            }
+            int stage = training.getStage(position);
+            for (int term = 0; term < TERMS; term++) {
+                int value = training.getTerm(position, term);
+                gradient[termWeight(stage, term)] += error * value;
+                curvature[termWeight(stage, term)] += certainty * value * value;
+            }
+        }
+        return loss;
+    }
+
+    private Void update(int from, int to, double rate) {
+        /* move weights [from, to) by sum of threads' gradients over their curvature (a Newton step for each weight
+        alone), shared between all weights a position moves, and clear both for next batch */
+        for (int weight = from; weight < to; weight++) {
+            double gradient = 0;
+            double curvature = 0;
+            for (int thread = 0; thread < threads; thread++) {
+                gradient += gradients[thread][weight];
+                curvature += curvatures[thread][weight];
+                gradients[thread][weight] = 0;
+                curvatures[thread][weight] = 0;
+            }
+            if (curvature > 0) {
+                weights[weight] -= (float) (rate * scale * gradient / ((curvature + STEP_PRIOR)
+                        * WEIGHTS_PER_POSITION));
+            }
+        }
+        return null;
+    }
+
+    private double loss(Positions positions) throws InterruptedException, ExecutionException {
+        // average cross entropy of positions with current weights, computed on all threads
+        List<Callable<Double>> tasks = new ArrayList<>(threads);
+        for (int thread = 0; thread < threads; thread++) {
+            int from = (int) ((long) positions.size() * thread / threads);
+            int to = (int) ((long) positions.size() * (thread + 1) / threads);
+            tasks.add(() -> {
+                int[] indexes = new int[INSTANCES];
+                double loss = 0;
+                for (int position = from; position < to; position++) {
+                    positions.getWeightIndexes(position, indexes);
+                    loss += crossEntropy(sigmoid(evaluate(positions, position, indexes) / scale),
+                            positions.getResult(position));
+                }
+                return loss;
+            });
+        }
+        return sum(executor.invokeAll(tasks)) / positions.size();
+    }
+
+    private double fitScale() throws InterruptedException, ExecutionException {
+        /* scale that makes starting weights predict results best, by golden section search on log scale over a
+        sample of training positions */
+        int sampleSize = Math.min(SCALE_SAMPLE, training.size());
+        double[] evaluations = new double[sampleSize];
+        double[] results = new double[sampleSize];
+        int[] indexes = new int[INSTANCES];
+        for (int sample = 0; sample < sampleSize; sample++) {
+            int position = (int) ((long) training.size() * sample / sampleSize);
+            training.getWeightIndexes(position, indexes);
+            evaluations[sample] = evaluate(training, position, indexes);
+            results[sample] = training.getResult(position);
+        }
+        double ratio = (Math.sqrt(5) - 1) / 2;
+        double low = Math.log(1);
+        double high = Math.log(100_000);
+        for (int iteration = 0; iteration < 40; iteration++) {
+            double lower = high - ratio * (high - low);
+            double upper = low + ratio * (high - low);
+            if (sampleLoss(evaluations, results, Math.exp(lower)) < sampleLoss(evaluations, results, Math.exp(upper))) {
+                high = upper;
+            } else {
+                low = lower;
+            }
+        }
+        return Math.exp((low + high) / 2);
+    }
+
+    private static double sampleLoss(double[] evaluations, double[] results, double scale) {
+        double loss = 0;
+        for (int sample = 0; sample < evaluations.length; sample++) {
+            loss += crossEntropy(sigmoid(evaluations[sample] / scale), results[sample]);
+        }
+        return loss;
+    }
+
+    private double evaluate(Positions positions, int position, int[] indexes) {
+        // evaluation with current weights, as PatternEvaluator.evaluate adds it up (unclamped)
+        double evaluation = 0;
+        for (int index : indexes) {
+            evaluation += weights[index];
+        }
+        int stage = positions.getStage(position);
+        for (int term = 0; term < TERMS; term++) {
+            evaluation += weights[termWeight(stage, term)] * positions.getTerm(position, term);
+        }
+        return evaluation;
+    }
+
+    private static PatternEvaluator toEvaluator(float[] fittedWeights) {  // round to evaluator's weight types
+        short[] patternWeights = new short[PATTERN_WEIGHTS];
+        for (int weight = 0; weight < PATTERN_WEIGHTS; weight++) {
+            patternWeights[weight] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE,
+                    Math.round(fittedWeights[weight])));
+        }
+        int[][] termWeights = new int[TERMS][STAGES];
+        for (int term = 0; term < TERMS; term++) {
+            for (int stage = 0; stage < STAGES; stage++) {
+                termWeights[term][stage] = Math.round(fittedWeights[termWeight(stage, term)]);
+            }
+        }
+        return new PatternEvaluator(patternWeights, termWeights[0], termWeights[1], termWeights[2]);
+    }
+
+    private static int termWeight(int stage, int term) {
+        return PATTERN_WEIGHTS + stage * TERMS + term;
+    }
+
+    private static double sigmoid(double x) {
+        return 1 / (1 + Math.exp(-x));
+    }
+
+    private static double crossEntropy(double probability, double result) {
+        double clamped = Math.max(1e-12, Math.min(1 - 1e-12, probability));
+        return -(result * Math.log(clamped) + (1 - result) * Math.log(1 - clamped));
+    }
+
+    private static double sum(List<Future<Double>> futures) throws InterruptedException, ExecutionException {
+        double sum = 0;
+        for (Future<Double> future : futures) {
+            sum += future.get();
+        }
+        return sum;
+    }
+
+    public static class Positions {
+        /* labelled positions in flat arrays, position i's pattern indexes at [i * INSTANCES, (i + 1) * INSTANCES)
+        (a pattern index is below 3^10, so fits a char) and its stage, terms and result at [i] */
+        public static final long MAX_POSITIONS = Integer.MAX_VALUE / INSTANCES;
+        private final char[] patternIndexes;
+        private final byte[] stages;
+        private final byte[] mobility;
+        private final byte[] frontier;
+        private final byte[] pieces;
+        private final byte[] results;  // 0 lost, 1 drawn, 2 won, for player to move
+        private int size;
+
+        private Positions(int capacity) {
+            patternIndexes = new char[capacity * INSTANCES];
+            stages = new byte[capacity];
+            mobility = new byte[capacity];
+            frontier = new byte[capacity];
+            pieces = new byte[capacity];
+            results = new byte[capacity];
+        }
+
+        public static Positions[] read(List<Path> gameLogs, int skipPlies, long maxPositions) throws IOException {
+            /* training and held out positions (every VALIDATION_GAMES'th game) of game logs, from each game's
+            skipPlies'th move on, up to maxPositions in all. logs are read twice, first to count positions so
+            arrays are allocated once at their final size */
+            long[] counts = new long[2];
+            forEachGame(gameLogs, maxPositions, skipPlies, (cursor, held) -> counts[held] += positions(cursor,
+                    skipPlies));
+            Positions[] sets = {new Positions((int) counts[0]), new Positions((int) counts[1])};
+            int[] indexes = new int[INSTANCES];
+            forEachGame(gameLogs, maxPositions, skipPlies, (cursor, held) -> {
+                Positions set = sets[held];
+                int firstPlayerDifferential = cursor.replay(null);
+                cursor.replay((player, opponent, firstPlayerToMove, move, ply) -> {
+                    if (ply >= skipPlies) {
+                        int differential = firstPlayerToMove ? firstPlayerDifferential : -firstPlayerDifferential;
+                        set.add(player, opponent, Integer.signum(differential) + 1, indexes);
+                    }
+                });
+            });
+            return sets;
+        }
+
+        private interface GameVisitor {
+            void visit(GameDatabase.Cursor cursor, int held);  // held is 1 for a held out game, 0 for training
+        }
+
+        private static void forEachGame(List<Path> gameLogs, long maxPositions, int skipPlies, GameVisitor visitor)
+                throws IOException {
+            long games = 0;
+            long positions = 0;
+            for (Path gameLog : gameLogs) {
+                try (GameDatabase database = new GameDatabase(gameLog)) {
+                    GameDatabase.Cursor cursor = database.cursor();
+                    while (cursor.next() && positions + positions(cursor, skipPlies) <= maxPositions) {
+                        positions += positions(cursor, skipPlies);
+                        visitor.visit(cursor, games++ % VALIDATION_GAMES == VALIDATION_GAMES - 1 ? 1 : 0);
+                    }
+                }
+            }
+        }
+
+        private static int positions(GameDatabase.Cursor cursor, int skipPlies) {  // positions game adds
+            return Math.max(0, cursor.getMoveCount() - skipPlies);
+        }
+
+        private void add(long player, long opponent, int result, int[] indexes) {
+            PatternEvaluator.getPatternIndexes(player, opponent, indexes);
+            for (int instance = 0; instance < INSTANCES; instance++) {
+                patternIndexes[size * INSTANCES + instance] = (char) indexes[instance];
+            }
+            stages[size] = (byte) PatternEvaluator.getStage(Long.bitCount(~(player | opponent)));
+            mobility[size] = (byte) PatternEvaluator.getMobility(player, opponent);
+            frontier[size] = (byte) PatternEvaluator.getFrontier(player, opponent);
+            pieces[size] = (byte) (Long.bitCount(player) - Long.bitCount(opponent));
+            results[size] = (byte) result;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void getWeightIndexes(int position, int[] indexes) {
+            // where each of position's pattern instances' weight is in PatternEvaluator's weight table
+            int stage = stages[position];
+            for (int instance = 0; instance < INSTANCES; instance++) {
+                indexes[instance] = PatternEvaluator.getPatternWeightIndex(stage,
+                        PatternEvaluator.getInstancePattern(instance), patternIndexes[position * INSTANCES + instance]);
+            }
+        }
+
+        public int getStage(int position) {
+            return stages[position];
+        }
+
+        public int getTerm(int position, int term) {  // 0 mobility, 1 frontier, 2 piece difference
+            return term == 0 ? mobility[position] : term == 1 ? frontier[position] : pieces[position];
+        }
+
+        public double getResult(int position) {  // 1 won, 0.5 drawn, 0 lost, for player to move
+            return results[position] / 2.0;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+// October 18, 2026
+
+// static evaluation used by SearchEngine at the end of its search depth. implementations must be thread safe, one
+// evaluator is shared by every search thread
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public interface Evaluator {
+    int MAX_SCORE = 50_000;  // evaluations stay within +/- this, below score of a won game
+
+    int evaluate(long player, long opponent);  // score position from point of view of player to move
+
+    static Evaluator forName(String name) {
+        /* evaluator by name used in settings: disc, pattern (default weights, see PatternEvaluator), handmade
+        (pattern with built in weights) or path of a weight file */
+        return switch (name.toLowerCase()) {
+            case "disc" -> new DiscEvaluator();
+            case "pattern" -> PatternEvaluator.getDefault();
+            case "handmade" -> PatternEvaluator.getHandMade();
+            default -> {
+                if (!Files.isRegularFile(Path.of(name))) {
+                    throw new IllegalArgumentException("unknown evaluator: " + name);
+                }
+                yield PatternEvaluator.load(Path.of(name));
+            }
+        };
+    }
+
+    static Evaluator getDefault() {  // evaluator from othello.evaluator system property, pattern if not set
+        return forName(System.getProperty("othello.evaluator", "pattern"));
+    }
+}
@@ -0,0 +1,186 @@
+// October 18, 2026
+
+// read only access to a game log written by GameRecordWriter, of any size. file is memory mapped a chunk at a time
+// (a single mapping can't pass 2 GB) and games are read straight out of the mapping one by one, so nothing but the
+// current game is ever on the heap. a last game cut short (e.g. by a crash while writing) is ignored.
+// usage: java GameDatabase [--chunk-megabytes N] file    prints totals for every game in file
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class GameDatabase implements AutoCloseable {
+    public static final long DEFAULT_CHUNK_BYTES = 1L << 30;
+    private static final long MIN_CHUNK_BYTES = 1L << 20;  // mappings are only released by GC, don't make too many
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long size;
+    private final long chunkBytes;
+
+    public GameDatabase(Path path) throws IOException {
+        this(path, DEFAULT_CHUNK_BYTES);
+    }
+
+    public GameDatabase(Path path, long chunkBytes) throws IOException {
+        // open log, mapping at most chunkBytes of it at a time (at least a megabyte)
+        this.path = path;
+        this.chunkBytes = Math.max(chunkBytes, MIN_CHUNK_BYTES);
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(GameRecordWriter.HEADER_BYTES);
+        if (channel.read(header, 0) < GameRecordWriter.HEADER_BYTES || header.getInt(0) != GameRecordWriter.MAGIC
+                || header.getInt(4) != GameRecordWriter.VERSION) {
+            channel.close();
+            throw new IllegalStateException("not a game log (or wrong version): " + path);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        long chunkBytes = DEFAULT_CHUNK_BYTES;
+        Path path = null;
+        for (int argIndex = 0; argIndex < args.length; argIndex++) {
+            switch (args[argIndex]) {
+                case "--chunk-megabytes" -> chunkBytes = Long.parseLong(args[++argIndex]) << 20;
+                default -> path = Path.of(args[argIndex]);
+            }
+        }
+        if (path == null) {
+            System.out.println("usage: java GameDatabase [--chunk-megabytes N] file");
+            return;
+        }
+        long startTime = System.nanoTime();
+        long games = 0;
+        long moves = 0;
+        long[] results = new long[3];  // first player's wins, losses, ties
+        long pieceDifferentialTotal = 0;
+        try (GameDatabase database = new GameDatabase(path, chunkBytes)) {
+            Cursor cursor = database.cursor();
+            while (cursor.next()) {
+                int pieceDifferential = cursor.replay(null);
+                games++;
+                moves += cursor.getMoveCount();
+                results[pieceDifferential > 0 ? 0 : pieceDifferential < 0 ? 1 : 2]++;
+                pieceDifferentialTotal += pieceDifferential;
+            }
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+            System.out.printf("%,d games, %,d moves (%.1f a game) in %s (%,d MB)%n", games, moves,
+                    games == 0 ? 0 : (double) moves / games, path, database.size >> 20);
+            System.out.printf("first player won %,d, lost %,d, tied %,d, average piece differential %+.2f%n",
+                    results[0], results[1], results[2], games == 0 ? 0 : (double) pieceDifferentialTotal / games);
+            System.out.printf("replayed in %.1f sec (%,.0f games/sec, %,.0f MB/sec)%n", seconds, games / seconds,
+                    database.size / 1e6 / seconds);
+        }
+    }
+
+    public Cursor cursor() {  // new cursor before first game, cursors are independent and each for one thread only
+        return new Cursor();
+    }
+
+    public void forEachPosition(PositionVisitor visitor) {  // replay every game, visiting every position with a move
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            cursor.replay(visitor);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {  // mappings already handed out stay readable after close
+        channel.close();
+    }
+
+    @FunctionalInterface
+    public interface PositionVisitor {
+        // player to move (first player if firstPlayerToMove, otherwise second), their pieces & opponent's, move
+        // they played and how many moves came before it in game
+        void visit(long player, long opponent, boolean firstPlayerToMove, int move, int ply);
+    }
+
+    public class Cursor {
+        // walks through games in file order. holds only current game's moves
+        private MappedByteBuffer chunk;  // mapping of file from chunkStart on
+        private long chunkStart;
+        private long offset = GameRecordWriter.HEADER_BYTES;  // where next game starts in file
+        private final byte[] moves = new byte[GameRecordWriter.MAX_MOVES];
+        private int moveCount;
+
+        private Cursor() {
+        }
+
+        public boolean next() {  // move on to next game, false once there are no more
+            if (offset >= size) {
+                return false;
+            }
+            ensureMapped(offset, 1);
+            int gameMoves = chunk.get((int) (offset - chunkStart)) & 0xff;
+            if (gameMoves > GameRecordWriter.MAX_MOVES) {
+                throw new IllegalStateException("corrupt game log " + path + " at byte " + offset);
+            }
+            if (offset + 1 + gameMoves > size) {
+                offset = size;  // last game was cut short
+                return false;
+            }
+            ensureMapped(offset, 1 + gameMoves);
+            chunk.get((int) (offset + 1 - chunkStart), moves, 0, gameMoves);
+            moveCount = gameMoves;
+            offset += 1 + gameMoves;
+            return true;
+        }
+
+        public int getMoveCount() {
+            return moveCount;
+        }
+
+        public int getMove(int ply) {  // square of ply'th move of current game
+            return moves[ply];
+        }
+
+        public int replay(PositionVisitor visitor) {
+            /* play current game from starting board, giving visitor (if not null) each position and move played
+            from it. returns first player's pieces minus second player's at end */
+            long player = BitBoard.STARTING_FIRST_PLAYER_PIECES;
+            long opponent = BitBoard.STARTING_SECOND_PLAYER_PIECES;
+            boolean firstPlayerToMove = true;
+            for (int ply = 0; ply < moveCount; ply++) {
+                if (BitBoard.legalMoves(player, opponent) == 0) {  // player has to pass
+                    long swap = player;
+                    player = opponent;
+                    opponent = swap;
+                    firstPlayerToMove = !firstPlayerToMove;
+                }
+                int move = moves[ply];
+                long flipped = move < 0 || move >= BitBoard.SQUARES ? 0 : BitBoard.flips(player, opponent, move);
+                if (flipped == 0) {  // a stored byte that isn't a square is shown as is
+                    String moveText = move < 0 || move >= BitBoard.SQUARES ? "byte " + (move & 0xff) :
+                            BitBoard.squareName(move);
+                    throw new IllegalStateException("illegal move " + moveText + " in game in " + path
+                            + " before byte " + offset);
+                }
+                if (visitor != null) {
+                    visitor.visit(player, opponent, firstPlayerToMove, move, ply);
+                }
+                long newPlayer = player | flipped | (1L << move);
+                player = opponent & ~flipped;
+                opponent = newPlayer;
+                firstPlayerToMove = !firstPlayerToMove;
+            }
+            int pieceDifferential = Long.bitCount(player) - Long.bitCount(opponent);
+            return firstPlayerToMove ? pieceDifferential : -pieceDifferential;
+        }
+
+        private void ensureMapped(long start, int length) {  // map chunk starting at start unless it's already mapped
+            if (chunk == null || start < chunkStart || start + length > chunkStart + chunk.capacity()) {
+                try {
+                    chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(chunkBytes, size - start));
+                    chunkStart = start;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("couldn't map game log " + path, e);
+                }
+            }
+        }
+    }
+}
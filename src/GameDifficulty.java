@@ -1,9 +1,65 @@
 // May 26, 2022
 
-// enum for game difficulty
+// enum for game difficulty. each difficulty searches deeper one ply at a time until it reaches its depth or runs out
+// of its budget for the move, then plays the best move of the deepest search that finished. a time budget is a hard
+// ceiling on how long the program takes to move; a node budget makes strength the same on any machine
 
 public enum GameDifficulty {
-    EASY,
-    MEDIUM,
-    HARD
+    EASY(1, 1, 0, 100),  // only looks at its own move
+    MEDIUM(6, 6, 20_000, 250),
+    HARD(10, SearchEngine.MAX_DEPTH, 0, 1000);
+
+    private static final int OPENING_EMPTIES = 44;  // more empty squares than this is opening, full budget after
+    private static final int ENDGAME_EMPTIES = 16;  // this many or fewer is endgame (solver takes over around here)
+    private static final int OPENING_FIRST_MOVE_PERCENT = 40;  // first move's share of budget, rising to 100
+    private static final int ENDGAME_PERCENT = 50;
+
+    private final int depth;
+    private final int maxDepth;
+    private final long nodeLimit;
+    private final long moveTimeMillis;
+
+    GameDifficulty(int depth, int maxDepth, long nodeLimit, long moveTimeMillis) {
+        this.depth = depth;
+        this.maxDepth = maxDepth;
+        this.nodeLimit = nodeLimit;
+        this.moveTimeMillis = moveTimeMillis;
+    }
+
+    public int getDepth() {
+        /* depth a fixed depth search needs to play about as well, for tools that search to a fixed depth and for
+        opening book moves (book moves searched at least this deep, and no deeper than getMaxDepth(), are played
+        instead of searching) */
+        return depth;
+    }
+
+    public int getMaxDepth() {  // deepest search tries to go within its budget
+        return maxDepth;
+    }
+
+    public long getNodeLimit() {  // nodes a move may search, 0 for no limit
+        return nodeLimit;
+    }
+
+    public long getMoveTimeMillis() {  // longest a move may take, budget of a midgame move
+        return moveTimeMillis;
+    }
+
+    public long getMoveTimeMillis(int emptySquares) {
+        /* time budget for a move in a position with this many empty squares. midgame moves decide most games and
+        get all of it. opening moves get less, starting at OPENING_FIRST_MOVE_PERCENT and rising to all of it by end
+        of opening, and endgame moves get ENDGAME_PERCENT (endgame solver is fast by then, and positions have few
+        moves). never more than getMoveTimeMillis() */
+        int percent;
+        if (emptySquares > OPENING_EMPTIES) {
+            int openingMoves = BitBoard.SQUARES - 4 - OPENING_EMPTIES;
+            int movesPlayed = BitBoard.SQUARES - 4 - emptySquares;
+            percent = OPENING_FIRST_MOVE_PERCENT + (100 - OPENING_FIRST_MOVE_PERCENT) * movesPlayed / openingMoves;
+        } else if (emptySquares > ENDGAME_EMPTIES) {
+            percent = 100;
+        } else {
+            percent = ENDGAME_PERCENT;
+        }
+        return Math.max(1, moveTimeMillis * percent / 100);
+    }
 }
\ No newline at end of file
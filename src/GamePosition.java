@@ -0,0 +1,122 @@
+// October 18, 2026
+
+// a position as text, for reading and writing positions to files. 64 squares from a1 to h1, then a2 to h2 and so on
+// ('x' first player's piece, 'o' second player's, '-' empty; 'X', 'O' and '.' are read too), a space, and whose turn it
+// is ('x' or 'o'). e.g. starting position is
+// ---------------------------ox------xo--------------------------- x
+// first player is user in OthelloBoard, and is the one who moves first in a game
+
+public final class GamePosition {
+    private static final int TEXT_LENGTH = BitBoard.SQUARES + 2;
+
+    private final long firstPlayerPieces;
+    private final long secondPlayerPieces;
+    private final boolean firstPlayerToMove;
+
+    public GamePosition(long firstPlayerPieces, long secondPlayerPieces, boolean firstPlayerToMove) {
+        if ((firstPlayerPieces & secondPlayerPieces) != 0) {
+            throw new IllegalArgumentException("both players have a piece on the same square");
+        }
+        this.firstPlayerPieces = firstPlayerPieces;
+        this.secondPlayerPieces = secondPlayerPieces;
+        this.firstPlayerToMove = firstPlayerToMove;
+    }
+
+    public static GamePosition of(OthelloBoard board, Player playerToMove) {  // board's position, user as first player
+        return new GamePosition(board.getPieces(Player.USER), board.getPieces(Player.PROGRAM),
+                playerToMove == Player.USER);
+    }
+
+    public static GamePosition parse(String text) {
+        // read position from text (surrounding whitespace ignored), throws IllegalArgumentException saying what's wrong
+        String trimmed = text.strip();
+        if (trimmed.length() != TEXT_LENGTH || !Character.isWhitespace(trimmed.charAt(BitBoard.SQUARES))) {
+            throw new IllegalArgumentException("expected 64 squares, a space and player to move");
+        }
+        long firstPlayerPieces = 0;
+        long secondPlayerPieces = 0;
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            switch (trimmed.charAt(square)) {
+                case 'x', 'X' -> firstPlayerPieces |= 1L << square;
+                case 'o', 'O' -> secondPlayerPieces |= 1L << square;
+                case '-', '.' -> {
+                }
+                default -> throw new IllegalArgumentException("unexpected '" + trimmed.charAt(square) + "' on "
+                        + BitBoard.squareName(square));
+            }
+        }
+        char playerToMove = Character.toLowerCase(trimmed.charAt(BitBoard.SQUARES + 1));
+        if (playerToMove != 'x' && playerToMove != 'o') {
+            throw new IllegalArgumentException("player to move must be x or o");
+        }
+        return new GamePosition(firstPlayerPieces, secondPlayerPieces, playerToMove == 'x');
+    }
+
+    public GamePosition play(int move) {
+        // position after player to move plays move (square), or passes if move is -1. IllegalArgumentException if
+        // it isn't legal, passing included when player has a move
+        long player = getPlayerPieces();
+        long opponent = getOpponentPieces();
+        if (move == -1) {
+            if (BitBoard.legalMoves(player, opponent) != 0) {
+                throw new IllegalArgumentException("can't pass with a legal move");
+            }
+            return new GamePosition(firstPlayerPieces, secondPlayerPieces, !firstPlayerToMove);
+        }
+        long flipped = move < 0 || move >= BitBoard.SQUARES ? 0 : BitBoard.flips(player, opponent, move);
+        if (flipped == 0) {
+            throw new IllegalArgumentException("illegal move " + (move < 0 || move >= BitBoard.SQUARES ? move :
+                    BitBoard.squareName(move)));
+        }
+        long newPlayer = player | flipped | (1L << move);
+        long newOpponent = opponent & ~flipped;
+        return firstPlayerToMove ? new GamePosition(newPlayer, newOpponent, false) :
+                new GamePosition(newOpponent, newPlayer, true);
+    }
+
+    public long getFirstPlayerPieces() {
+        return firstPlayerPieces;
+    }
+
+    public long getSecondPlayerPieces() {
+        return secondPlayerPieces;
+    }
+
+    public boolean isFirstPlayerToMove() {
+        return firstPlayerToMove;
+    }
+
+    public long getPlayerPieces() {  // pieces of player to move
+        return firstPlayerToMove ? firstPlayerPieces : secondPlayerPieces;
+    }
+
+    public long getOpponentPieces() {
+        return firstPlayerToMove ? secondPlayerPieces : firstPlayerPieces;
+    }
+
+    public int getPlayerColor() {  // Zobrist color of player to move
+        return firstPlayerToMove ? Zobrist.FIRST_COLOR : Zobrist.SECOND_COLOR;
+    }
+
+    @Override
+    public String toString() {  // text form, as read by parse
+        StringBuilder text = new StringBuilder(TEXT_LENGTH);
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            long bit = 1L << square;
+            text.append((firstPlayerPieces & bit) != 0 ? 'x' : (secondPlayerPieces & bit) != 0 ? 'o' : '-');
+        }
+        return text.append(' ').append(firstPlayerToMove ? 'x' : 'o').toString();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof GamePosition position && firstPlayerPieces == position.firstPlayerPieces
+                && secondPlayerPieces == position.secondPlayerPieces
+                && firstPlayerToMove == position.firstPlayerToMove;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(firstPlayerPieces * 31 + secondPlayerPieces) * 2 + (firstPlayerToMove ? 1 : 0);
+    }
+}
@@ -1,11 +1,29 @@
 // May 26, 2022
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
 
 public class GameProgram {
+    private static final boolean PONDER =  // search on user's time, -Dothello.ponder=false to turn off
+            Boolean.parseBoolean(System.getProperty("othello.ponder", "true"));
+    private static final boolean SHOW_SEARCH = Boolean.getBoolean("othello.showSearch");  // print how moves were found
+
     public static void main(String[] args) {
         Scanner kb = new Scanner(System.in);  // scanner for input
         boolean playAgain;  // flag to play game again or not
+        GameStatistics gameStatistics = new GameStatistics();  // totals for all games played this run
+        GameRecordWriter gameRecordWriter = openGameLog();  // null unless -Dothello.gameLog=path is set
+        if (gameRecordWriter != null) {  // close on any exit (Ctrl-C, end of input), not just when user stops playing
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    gameRecordWriter.close();
+                } catch (IOException | UncheckedIOException e) {
+                    System.out.println("Your games couldn't be saved: " + e.getMessage());
+                }
+            }));
+        }
 
         displayStartGameMessage();
 
@@ -23,27 +41,35 @@ public class GameProgram {
             GameDifficulty gameDifficulty = choice == 'E' ?  // set game difficulty based on user input
                     GameDifficulty.EASY : choice == 'M' ? GameDifficulty.MEDIUM : GameDifficulty.HARD;
 
-            OthelloBoard board = new OthelloBoard(gameDifficulty);  // create new OthelloBoard for this game
+            OthelloBoard board = new OthelloBoard(gameDifficulty, gameStatistics);  // create new OthelloBoard for this game
+            if (gameRecordWriter != null) {
+                board.setGameRecordWriter(gameRecordWriter);
+            }
             int userSelectedRow, userSelectedCol;  // to hold row + col selections when user places piece
 
             System.out.println("Here is the state of the board now:\n" + board);
             while (board.isSomeLegalMoveLeft()) {  // run game whilst both players have legal moves
-                if (board.isSomeLegalMoveLeft(Player.USER)) {  // if user has a legal move on the board then let them go
+                long userLegalMoves = board.getLegalMoves(Player.USER);  // all of user's legal moves, found in one pass
+                if (userLegalMoves != 0) {  // if user has a legal move on the board then let them go
+                    if (PONDER) {  // think about replies while user thinks
+                        board.startPondering();
+                    }
                     // get and place piece from user
                     displayPromptForNextUserMove();
-                    input = kb.nextLine();
+                    input = readUserMove(kb, board);
                     int[] rowAndCol = convertUserLocationToIntegerIndex(input);  // get actual indexes from user input
                     userSelectedRow = rowAndCol[0];
                     userSelectedCol = rowAndCol[1];
-                    while (!board.isLegalMove(userSelectedRow, userSelectedCol, board.getUSER_SYMBOL())) {
+                    while (!BitBoard.contains(userLegalMoves, userSelectedRow, userSelectedCol)) {
                         // while illegal move or bad number entered - ask again
                         System.out.println("That is an invalid location. ");
                         displayPromptForNextUserMove();
-                        input = kb.nextLine();
+                        input = readUserMove(kb, board);
                         rowAndCol = convertUserLocationToIntegerIndex(input);
                         userSelectedRow = rowAndCol[0];
                         userSelectedCol = rowAndCol[1];
                     }
+                    board.stopPondering();  // user has moved, don't slow down rest of their turn
                     // run user's turn and display number of pieces flipped
                     System.out.println("\nYou flipped " +
                             board.runTurn(userSelectedRow, userSelectedCol, board.getUSER_SYMBOL()) + " pieces this turn. ");
@@ -52,10 +78,13 @@ public class GameProgram {
                 } else {  // if user doesn't have a legal move on board then notify user
                     System.out.println("There are no legal moves right now for you - ");
                 }
-                if (board.isSomeLegalMoveLeft(Player.PROGRAM)) {  // if program has a legal move on the board then let them go
+                if (board.getLegalMoves(Player.PROGRAM) != 0) {  // if program has a legal move on the board then let them go
                     System.out.println("Program's turn, press enter to have it go: ");
                     kb.nextLine();
                     System.out.println("Program went and flipped " + board.programsTurn() + " pieces.");
+                    if (SHOW_SEARCH && board.getLastMoveStatistics() != null) {  // -Dothello.showSearch=true
+                        System.out.println("Program " + board.getLastMoveStatistics() + ".");
+                    }
                     System.out.println(board.toString(true));
                     System.out.println("Press enter to continue.");
                     kb.nextLine();
@@ -66,6 +95,18 @@ public class GameProgram {
             }
 
             Player winner = board.endGameAndGetWinner();  // end game and display end game message
+            if (gameRecordWriter != null) {
+                try {
+                    gameRecordWriter.flush();  // save game now, a game a run is few enough to write each one
+                } catch (UncheckedIOException e) {
+                    System.out.println("Your game couldn't be saved: " + e.getMessage());
+                }
+            }
+            Ponderer ponderer = board.getPonderer();
+            if (ponderer != null && ponderer.getHits() + ponderer.getMisses() > 0) {
+                System.out.printf("The program predicted %d of your %d moves while you were thinking (%.0f%%).%n",
+                        ponderer.getHits(), ponderer.getHits() + ponderer.getMisses(), ponderer.getHitRate() * 100);
+            }
             if (winner.equals(Player.USER)) {
                 System.out.println("You won the game!");
                 System.out.println("You had " + board.getUserPiecesOnBoard() + " pieces on the board.");
@@ -83,13 +124,65 @@ public class GameProgram {
         } while (playAgain);
 
         System.out.println("\nTotals\n-----------------------------\n");
-        System.out.println("You played " + OthelloBoard.getNumUserGamesPlayed() + " game(s) today.");
-        System.out.println("You won " + OthelloBoard.getUserWins() + " game(s) today, which is " +
-                (OthelloBoard.getPercentageOfUserWins() * 100) + "% of the game(s) you played");
-        System.out.println("You lost " + OthelloBoard.getUserLosses() + " game(s) today, which is " +
-                (OthelloBoard.getPercentageOfUserLosses() * 100) + "% of the game(s) you played");
-        System.out.println("You tied " + OthelloBoard.getUserTies() + " game(s) today, which is " +
-                (OthelloBoard.getPercentageOfUserTies() * 100) + "% of the game(s) you played");
+        System.out.println("You played " + gameStatistics.getGamesPlayed() + " game(s) today.");
+        System.out.println("You won " + gameStatistics.getWins() + " game(s) today, which is " +
+                (gameStatistics.getPercentageOfWins() * 100) + "% of the game(s) you played");
+        System.out.println("You lost " + gameStatistics.getLosses() + " game(s) today, which is " +
+                (gameStatistics.getPercentageOfLosses() * 100) + "% of the game(s) you played");
+        System.out.println("You tied " + gameStatistics.getTies() + " game(s) today, which is " +
+                (gameStatistics.getPercentageOfTies() * 100) + "% of the game(s) you played");
+    }
+
+    private static GameRecordWriter openGameLog() {
+        // open game log named by othello.gameLog system property to append games to, null if not set or can't open
+        String gameLog = System.getProperty("othello.gameLog");
+        if (gameLog == null) {
+            return null;
+        }
+        try {
+            return new GameRecordWriter(Path.of(gameLog));
+        } catch (IOException | IllegalStateException e) {
+            System.out.println("Games won't be saved, couldn't open " + gameLog + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String readUserMove(Scanner kb, OthelloBoard board) {
+        // read user's input for their move, showing a hint first each time they ask for one
+        String input = kb.nextLine();
+        while (input.trim().equalsIgnoreCase("hint") || input.trim().equals("?")) {
+            displayHint(board);
+            if (PONDER) {  // hint stopped pondering, as it searches with same engine
+                board.startPondering();
+            }
+            displayPromptForNextUserMove();
+            input = kb.nextLine();
+        }
+        return input;
+    }
+
+    private static void displayHint(OthelloBoard board) {
+        /* rank all user's moves with a search as strong as hard difficulty's. shows best few after every ply so
+        there's something to see right away, then whole ranking */
+        System.out.println("Thinking about your moves...");
+        GameDifficulty hintDifficulty = GameDifficulty.HARD;
+        List<MoveAnalysis> ranking = board.analyzeMoves(Player.USER, hintDifficulty.getMaxDepth(),
+                hintDifficulty.getMoveTimeMillis(board.getEmptySquaresCount()), iteration -> {
+                    StringBuilder line = new StringBuilder("  " + iteration.get(0).getDepth() + " moves ahead:");
+                    for (int rank = 0; rank < Math.min(3, iteration.size()); rank++) {
+                        MoveAnalysis analysis = iteration.get(rank);
+                        line.append(rank == 0 ? " " : ", ").append(BitBoard.squareName(analysis.getMove())
+                                .toUpperCase()).append(' ').append(analysis.getScoreText());
+                    }
+                    System.out.println(line);
+                });
+        System.out.println("Your moves, best first (score is how good the position looks for you afterwards, and " +
+                "line is how play might go):");
+        for (int rank = 0; rank < ranking.size(); rank++) {
+            MoveAnalysis analysis = ranking.get(rank);
+            System.out.printf("  %d. %s %s  (%s)%n", rank + 1, BitBoard.squareName(analysis.getMove()).toUpperCase(),
+                    analysis.getScoreText(), analysis.getPrincipalVariationText().toUpperCase());
+        }
     }
 
     private static void displayStartGameMessage() {
@@ -109,7 +202,7 @@ public class GameProgram {
 
     private static void displayPromptForNextUserMove() {
         System.out.print("It's your turn! \nEnter the row and column to " +
-                "place your piece (For example: \"D, 3\"): ");
+                "place your piece (For example: \"D, 3\"), or \"hint\" to see your best moves: ");
     }
 
     private static int[] convertUserLocationToIntegerIndex(String userInput) {
@@ -0,0 +1,126 @@
+// October 18, 2026
+
+// appends finished games to a game log, read back with GameDatabase. each game is its number of moves (one byte)
+// followed by one byte per move, the square played (row * 8 + column). passes aren't stored, whoever has to pass is
+// known when replaying. first player (user in GameProgram) always moves first.
+// file layout (big endian): magic, version (ints), then games back to back. writes go through a direct buffer and
+// reach the file in large blocks, so close() (or flush()) must be called for the last games to be saved. safe to
+// share between threads, e.g. all sessions of a GameServer. a last game cut short (e.g. by a crash while flushing) is
+// cut off the file when it's opened again, so new games start where the last complete one ends
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class GameRecordWriter implements AutoCloseable {
+    public static final int MAGIC = 0x4f475231;  // "OGR1"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 8;
+    public static final int MAX_MOVES = BitBoard.SQUARES - 4;  // every empty square of starting board filled
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private long gamesWritten;
+
+    public GameRecordWriter(Path path) throws IOException {
+        /* open log for appending, creating it if it doesn't exist. an existing file must be a game log, and is
+        truncated after its last complete game */
+        this.path = path;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size == 0) {
+                buffer.putInt(MAGIC).putInt(VERSION);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                if (channel.read(header, 0) < HEADER_BYTES || header.getInt(0) != MAGIC
+                        || header.getInt(4) != VERSION) {
+                    throw new IllegalStateException("not a game log (or wrong version): " + path);
+                }
+                long end = endOfLastGame(size);
+                if (end < size) {
+                    channel.truncate(end);
+                    size = end;
+                }
+            }
+            channel.position(size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private long endOfLastGame(long size) throws IOException {
+        // walk games' length bytes from after header, returns where last game that's all in file ends
+        ByteBuffer block = ByteBuffer.allocate(BUFFER_BYTES);
+        long blockStart = HEADER_BYTES;
+        block.limit(0);
+        long offset = HEADER_BYTES;  // where next game starts
+        while (offset < size) {
+            if (offset >= blockStart + block.limit()) {
+                block.clear();
+                blockStart = offset;
+                int bytesRead;
+                do {  // until block is full or file ends
+                    bytesRead = channel.read(block, blockStart + block.position());
+                } while (bytesRead > 0 && block.hasRemaining());
+                block.flip();
+            }
+            int gameMoves = block.get((int) (offset - blockStart)) & 0xff;
+            if (gameMoves > MAX_MOVES) {
+                throw new IllegalStateException("corrupt game log " + path + " at byte " + offset);
+            }
+            if (offset + 1 + gameMoves > size) {
+                break;  // cut short
+            }
+            offset += 1 + gameMoves;
+        }
+        return offset;
+    }
+
+    public synchronized void writeGame(byte[] moves, int moveCount) {
+        // append one game, moves[0] to moves[moveCount - 1] being squares played in order
+        if (moveCount < 0 || moveCount > MAX_MOVES) {
+            throw new IllegalArgumentException("a game has at most " + MAX_MOVES + " moves: " + moveCount);
+        }
+        if (buffer.remaining() < 1 + moveCount) {
+            flush();
+        }
+        buffer.put((byte) moveCount).put(moves, 0, moveCount);
+        gamesWritten++;
+    }
+
+    public synchronized void flush() {  // write buffered games to file
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("couldn't write game log " + path, e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    public synchronized long getGamesWritten() {  // games written by this writer, not counting ones already in file
+        return gamesWritten;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
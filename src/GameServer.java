@@ -0,0 +1,311 @@
+// October 18, 2026
+
+// multi-session game server on a local socket. every connection is one player's session with its own OthelloBoard and
+// its own thread, which only parses commands and waits. program's moves are searched on a fixed pool of engine threads
+// (one SearchEngine each) behind a bounded queue, and a move that doesn't fit in the queue is turned away with BUSY
+// instead of piling up, as are connections over the session limit. results of finished games are totalled across
+// sessions. see LoadGenerator for a client that measures move latency under load.
+// usage: java GameServer [--port N] [--engine-threads N] [--queue N] [--max-sessions N] [--hash-megabytes N]
+//                         [--game-log file]    (finished games are appended to game log, see GameRecordWriter)
+// protocol, one command per line and one reply line per command (squares are named like "d3"):
+//   server greets with "OTHELLO 1", or "BUSY ..." and closes if it's full
+//   NEW [EASY|MEDIUM|HARD]  start a game (HARD if left out), user moves first            -> OK
+//   MOVE <square>           user's move, program then moves until user has a move again ->
+//                           PLAYED <program's moves, comma separated, "-" if none> <user's pieces> <program's pieces>
+//                           <PLAYING|WIN|LOSS|TIE>, or BUSY if engines are overloaded (move isn't played, retry)
+//   BOARD                   -> BOARD <64 characters, x user, o program, - empty, a1 to h1 then a2 and so on>
+//   STATS                   -> STATS <key=value ...> for whole server
+//   QUIT                    -> BYE
+// anything wrong gets ERROR <reason>, and the session carries on
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class GameServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 7878;
+    public static final String GREETING = "OTHELLO 1";
+    private static final int SESSION_STACK_BYTES = 256 * 1024;  // session threads only parse lines, keep them small
+    private static final int IDLE_TIMEOUT_MILLIS = 10 * 60 * 1000;  // close sessions nobody has used for this long
+    private static final int ACCEPT_BACKLOG = 1024;
+
+    private final ServerSocket serverSocket;
+    private final ThreadPoolExecutor engineThreads;
+    private final ThreadLocal<SearchEngine> engines;  // one per engine thread, kept warm between moves
+    private final Semaphore sessionPermits;  // admission control for connections
+    private final GameStatistics gameStatistics = new GameStatistics();  // finished games, from users' point of view
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final LongAdder sessionsStarted = new LongAdder();
+    private final LongAdder sessionsRejected = new LongAdder();
+    private final LongAdder turnsPlayed = new LongAdder();  // MOVE commands answered with PLAYED
+    private final LongAdder turnsRejected = new LongAdder();  // MOVE commands answered with BUSY
+    private final LongAdder turnNanos = new LongAdder();  // queueing plus searching, for average
+    private final AtomicInteger sessionIds = new AtomicInteger();
+    private GameRecordWriter gameRecordWriter;  // every finished game is appended here, null to not record games
+
+    public GameServer(int port, int engineThreadCount, int queueCapacity, int maxSessions, int hashMegabytes)
+            throws IOException {
+        // binds to loopback only, port 0 picks any free port (see getPort)
+        serverSocket = new ServerSocket(port, ACCEPT_BACKLOG, InetAddress.getLoopbackAddress());
+        AtomicInteger engineThreadIds = new AtomicInteger();
+        engineThreads = new ThreadPoolExecutor(engineThreadCount, engineThreadCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "engine-" + engineThreadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });  // default policy throws RejectedExecutionException once queue is full
+        engines = ThreadLocal.withInitial(() -> new SearchEngine(hashMegabytes, 1));
+        sessionPermits = new Semaphore(maxSessions);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        int engineThreadCount = Runtime.getRuntime().availableProcessors();
+        int queueCapacity = 256;
+        int maxSessions = 10_000;
+        int hashMegabytes = 16;
+        Path gameLog = null;
+        for (int argIndex = 0; argIndex < args.length; argIndex++) {
+            switch (args[argIndex]) {
+                case "--port" -> port = Integer.parseInt(args[++argIndex]);
+                case "--engine-threads" -> engineThreadCount = Integer.parseInt(args[++argIndex]);
+                case "--queue" -> queueCapacity = Integer.parseInt(args[++argIndex]);
+                case "--max-sessions" -> maxSessions = Integer.parseInt(args[++argIndex]);
+                case "--hash-megabytes" -> hashMegabytes = Integer.parseInt(args[++argIndex]);
+                case "--game-log" -> gameLog = Path.of(args[++argIndex]);
+                default -> {
+                    System.out.println("usage: java GameServer [--port N] [--engine-threads N] [--queue N] "
+                            + "[--max-sessions N] [--hash-megabytes N] [--game-log file]");
+                    return;
+                }
+            }
+        }
+        GameServer server = new GameServer(port, engineThreadCount, queueCapacity, maxSessions, hashMegabytes);
+        if (gameLog != null) {
+            server.setGameRecordWriter(new GameRecordWriter(gameLog));
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println(server.getStatistics());
+            try {
+                server.close();  // saves games still buffered
+            } catch (IOException e) {
+                System.out.println("couldn't close server: " + e);
+            }
+        }));
+        System.out.printf("listening on %s port %d, %d engine threads, queue %d, at most %d sessions%n",
+                InetAddress.getLoopbackAddress().getHostAddress(), server.getPort(), engineThreadCount,
+                queueCapacity, maxSessions);
+        server.serve();
+    }
+
+    public void setGameRecordWriter(GameRecordWriter gameRecordWriter) {  // set before serve(), closed with server
+        this.gameRecordWriter = gameRecordWriter;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public void serve() throws IOException {
+        // accept connections until closed, each session on its own thread
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                return;  // closed while waiting
+            }
+            if (!sessionPermits.tryAcquire()) {
+                sessionsRejected.increment();
+                rejectSession(socket);
+                continue;
+            }
+            Thread sessionThread = new Thread(null, () -> runSession(socket), "session-" + sessionIds.incrementAndGet(),
+                    SESSION_STACK_BYTES);
+            sessionThread.setDaemon(true);
+            sessionThread.start();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // stop accepting and stop engine threads, open sessions end on next read. closes game log
+        serverSocket.close();
+        engineThreads.shutdownNow();
+        if (gameRecordWriter != null) {
+            gameRecordWriter.close();
+        }
+    }
+
+    public String getStatistics() {  // one line of key=value totals, same as STATS reply
+        long turns = turnsPlayed.sum();
+        return String.format("sessions=%d sessionsStarted=%d sessionsRejected=%d games=%d userWins=%d "
+                        + "programWins=%d ties=%d turns=%d turnsRejected=%d averageTurnMillis=%.2f queued=%d",
+                activeSessions.get(), sessionsStarted.sum(), sessionsRejected.sum(), gameStatistics.getGamesPlayed(),
+                gameStatistics.getWins(), gameStatistics.getLosses(), gameStatistics.getTies(), turns,
+                turnsRejected.sum(), turns == 0 ? 0 : turnNanos.sum() / 1e6 / turns, engineThreads.getQueue().size());
+    }
+
+    private void rejectSession(Socket socket) {
+        try (socket; PrintWriter out = writerFor(socket)) {
+            out.println("BUSY too many sessions");
+        } catch (IOException e) {
+            // client already gone, nothing to tell it
+        }
+    }
+
+    private void runSession(Socket socket) {
+        activeSessions.incrementAndGet();
+        sessionsStarted.increment();
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                     StandardCharsets.US_ASCII));
+             PrintWriter out = writerFor(socket)) {
+            socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);  // replies are single short lines, don't wait to batch them
+            out.println(GREETING);
+            OthelloBoard board = null;  // null until first NEW
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] words = line.trim().split("\\s+");
+                String reply;
+                switch (words[0].toUpperCase()) {
+                    case "NEW" -> {
+                        GameDifficulty difficulty = parseDifficulty(words);
+                        if (difficulty == null) {
+                            reply = "ERROR difficulty is EASY, MEDIUM or HARD";
+                        } else {
+                            board = new OthelloBoard(difficulty, gameStatistics);
+                            if (gameRecordWriter != null) {
+                                board.setGameRecordWriter(gameRecordWriter);
+                            }
+                            reply = "OK";
+                        }
+                    }
+                    case "MOVE" -> reply = move(board, words);
+                    case "BOARD" -> reply = board == null ? "ERROR no game, send NEW first" : "BOARD " + encode(board);
+                    case "STATS" -> reply = "STATS " + getStatistics();
+                    case "QUIT" -> {
+                        out.println("BYE");
+                        return;
+                    }
+                    default -> reply = "ERROR unknown command " + words[0];
+                }
+                out.println(reply);
+            }
+        } catch (SocketTimeoutException e) {
+            // idle too long, just close
+        } catch (IOException e) {
+            // connection dropped, session is over
+        } finally {
+            activeSessions.decrementAndGet();
+            sessionPermits.release();
+        }
+    }
+
+    private String move(OthelloBoard board, String[] words) {
+        // play user's move and program's replies on an engine thread, waiting here for them
+        if (board == null) {
+            return "ERROR no game, send NEW first";
+        }
+        int square = words.length == 2 ? BitBoard.parseSquare(words[1]) : -1;
+        if (square < 0) {
+            return "ERROR expected MOVE <square>, like MOVE d3";
+        }
+        if (!board.isSomeLegalMoveLeft()) {
+            return "ERROR game is over, send NEW to play again";
+        }
+        if ((board.getLegalMoves(Player.USER) & (1L << square)) == 0) {
+            return "ERROR illegal move " + words[1];
+        }
+        long startTime = System.nanoTime();
+        Future<String> turn;
+        try {
+            turn = engineThreads.submit(() -> playTurn(board, square));
+        } catch (RejectedExecutionException e) {
+            turnsRejected.increment();
+            return "BUSY engines are overloaded, move not played";
+        }
+        try {
+            String reply = turn.get();
+            turnNanos.add(System.nanoTime() - startTime);
+            turnsPlayed.increment();
+            return reply;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERROR server shutting down";
+        } catch (ExecutionException e) {
+            return "ERROR " + e.getCause();
+        }
+    }
+
+    private String playTurn(OthelloBoard board, int userMove) {
+        /* runs on an engine thread. plays user's move, then program's moves as long as user has to pass after them.
+        ends game once nobody can move */
+        board.runTurn(userMove / BitBoard.BOARD_SIZE, userMove % BitBoard.BOARD_SIZE, board.getUSER_SYMBOL());
+        SearchEngine engine = engines.get();
+        StringBuilder programMoves = new StringBuilder();
+        while (board.getLegalMoves(Player.PROGRAM) != 0) {
+            board.programsTurn(engine);
+            if (programMoves.length() > 0) {
+                programMoves.append(',');
+            }
+            programMoves.append(BitBoard.squareName(board.getLastMoveStatistics().getMove()));
+            if (board.getLegalMoves(Player.USER) != 0) {
+                break;
+            }
+        }
+        String state = "PLAYING";
+        if (!board.isSomeLegalMoveLeft()) {
+            Player winner = board.endGameAndGetWinner();
+            state = winner == Player.USER ? "WIN" : winner == Player.PROGRAM ? "LOSS" : "TIE";
+        }
+        return String.format("PLAYED %s %d %d %s", programMoves.length() == 0 ? "-" : programMoves,
+                board.getUserPiecesOnBoard(), board.getProgramPiecesOnBoard(), state);
+    }
+
+    private static GameDifficulty parseDifficulty(String[] words) {  // null if it's not one
+        if (words.length == 1) {
+            return GameDifficulty.HARD;
+        }
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            if (difficulty.name().equalsIgnoreCase(words[1])) {
+                return difficulty;
+            }
+        }
+        return null;
+    }
+
+    private static String encode(OthelloBoard board) {
+        long userPieces = board.getPieces(Player.USER);
+        long programPieces = board.getPieces(Player.PROGRAM);
+        StringBuilder squares = new StringBuilder(BitBoard.SQUARES);
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            long bit = 1L << square;
+            squares.append((userPieces & bit) != 0 ? 'x' : (programPieces & bit) != 0 ? 'o' : '-');
+        }
+        return squares.toString();
+    }
+
+    private static PrintWriter writerFor(Socket socket) throws IOException {
+        return new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII), true);
+    }
+}
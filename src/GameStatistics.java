@@ -0,0 +1,95 @@
+// October 18, 2026
+
+// totals for a run of games, from one player's point of view (the user in GameProgram). thread safe, so games
+// played on different threads can record into the same statistics
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class GameStatistics {
+    private static final double CONFIDENCE_Z = 1.96;  // 95% confidence interval for Elo error bars
+
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder losses = new LongAdder();
+    private final LongAdder ties = new LongAdder();
+    private final LongAdder pieceDifferentialTotal = new LongAdder();  // player's pieces minus opponent's, summed
+
+    public Player recordGame(int playerPieces, int opponentPieces) {
+        /* add finished game to totals. returns winner, with player recorded as Player.USER and opponent as
+        Player.PROGRAM */
+        pieceDifferentialTotal.add(playerPieces - opponentPieces);
+        if (playerPieces > opponentPieces) {
+            wins.increment();
+            return Player.USER;
+        } else if (opponentPieces > playerPieces) {
+            losses.increment();
+            return Player.PROGRAM;
+        } else {
+            ties.increment();
+            return Player.TIE;
+        }
+    }
+
+    public long getGamesPlayed() {
+        return wins.sum() + losses.sum() + ties.sum();
+    }
+
+    public long getWins() {
+        return wins.sum();
+    }
+
+    public long getLosses() {
+        return losses.sum();
+    }
+
+    public long getTies() {
+        return ties.sum();
+    }
+
+    public double getPercentageOfWins() {  // fraction of games played that were won
+        return (double) getWins() / getGamesPlayed();
+    }
+
+    public double getPercentageOfLosses() {
+        return (double) getLosses() / getGamesPlayed();
+    }
+
+    public double getPercentageOfTies() {
+        return (double) getTies() / getGamesPlayed();
+    }
+
+    public double getAveragePieceDifferential() {  // average of player's pieces minus opponent's at end of game
+        long gamesPlayed = getGamesPlayed();
+        return gamesPlayed == 0 ? 0 : (double) pieceDifferentialTotal.sum() / gamesPlayed;
+    }
+
+    public double getScore() {  // fraction of points won, a tie being half a point
+        long gamesPlayed = getGamesPlayed();
+        return gamesPlayed == 0 ? 0.5 : (getWins() + getTies() / 2.0) / gamesPlayed;
+    }
+
+    public double getEloDifference() {  // player's strength over opponent's in Elo, from score
+        return scoreToElo(getScore());
+    }
+
+    public double getEloErrorMargin() {
+        /* half width of 95% confidence interval of Elo difference, from standard error of per-game scores
+        (1 win, 0.5 tie, 0 loss) */
+        long gamesPlayed = getGamesPlayed();
+        if (gamesPlayed == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double score = getScore();
+        double variance = (getWins() * Math.pow(1 - score, 2) + getTies() * Math.pow(0.5 - score, 2)
+                + getLosses() * Math.pow(score, 2)) / gamesPlayed;
+        double standardError = Math.sqrt(variance / gamesPlayed);
+        double upperElo = scoreToElo(score + CONFIDENCE_Z * standardError);
+        double lowerElo = scoreToElo(score - CONFIDENCE_Z * standardError);
+        return (upperElo - lowerElo) / 2;
+    }
+
+    private static double scoreToElo(double score) {
+        // clamp so an all wins (or all losses) run gives a large finite number instead of infinity
+        double clampedScore = Math.min(0.999, Math.max(0.001, score));
+        return -400 * Math.log10(1 / clampedScore - 1);
+    }
+}
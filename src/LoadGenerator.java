@@ -0,0 +1,178 @@
+// October 18, 2026
+
+// load generator for GameServer. opens many sessions at once, each playing games of random legal moves against the
+// server (keeping its own copy of the board from the replies), and reports move latency percentiles, throughput and
+// how often the server turned sessions or moves away.
+// usage: java LoadGenerator [--host H] [--port N] [--sessions N] [--games N] [--difficulty D] [--seed N]
+// games is per session. a move turned away with BUSY is retried after a random pause that grows with each retry, and
+// its latency runs from the first try to the reply that played it, since that's what the player waits
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LoadGenerator {
+    private static final long FIRST_RETRY_MILLIS = 5;  // pause after BUSY doubles each retry up to the longest
+    private static final long LONGEST_RETRY_MILLIS = 640;
+
+    private final String host;
+    private final int port;
+    private final int games;
+    private final GameDifficulty difficulty;
+    private final long seed;
+    private final LongAdder gamesFinished = new LongAdder();
+    private final LongAdder busyReplies = new LongAdder();
+    private final LongAdder sessionsRejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();  // failed sessions and replies that didn't match local board
+    private final List<long[]> sessionLatencies = new ArrayList<>();  // nanoseconds per move, one array per session
+
+    public LoadGenerator(String host, int port, int games, GameDifficulty difficulty, long seed) {
+        this.host = host;
+        this.port = port;
+        this.games = games;
+        this.difficulty = difficulty;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String host = "localhost";
+        int port = GameServer.DEFAULT_PORT;
+        int sessions = 100;
+        int games = 1;
+        GameDifficulty difficulty = GameDifficulty.HARD;
+        long seed = 1;
+        for (int argIndex = 0; argIndex < args.length; argIndex++) {
+            switch (args[argIndex]) {
+                case "--host" -> host = args[++argIndex];
+                case "--port" -> port = Integer.parseInt(args[++argIndex]);
+                case "--sessions" -> sessions = Integer.parseInt(args[++argIndex]);
+                case "--games" -> games = Integer.parseInt(args[++argIndex]);
+                case "--difficulty" -> difficulty = GameDifficulty.valueOf(args[++argIndex].toUpperCase());
+                case "--seed" -> seed = Long.parseLong(args[++argIndex]);
+                default -> {
+                    System.out.println("usage: java LoadGenerator [--host H] [--port N] [--sessions N] [--games N] "
+                            + "[--difficulty D] [--seed N]");
+                    return;
+                }
+            }
+        }
+        LoadGenerator loadGenerator = new LoadGenerator(host, port, games, difficulty, seed);
+        long startTime = System.nanoTime();
+        loadGenerator.run(sessions);
+        loadGenerator.printReport(sessions, (System.nanoTime() - startTime) / 1e9);
+    }
+
+    public void run(int sessions) throws InterruptedException {
+        // every session on its own thread, all started at once, waits for all to finish
+        Thread[] sessionThreads = new Thread[sessions];
+        for (int sessionIndex = 0; sessionIndex < sessions; sessionIndex++) {
+            int session = sessionIndex;
+            sessionThreads[sessionIndex] = new Thread(null, () -> runSession(session), "load-" + session, 256 * 1024);
+            sessionThreads[sessionIndex].start();
+        }
+        for (Thread sessionThread : sessionThreads) {
+            sessionThread.join();
+        }
+    }
+
+    private void runSession(int session) {
+        Random random = new Random(seed * 1_000_003 + session);
+        long[] latencies = new long[games * BitBoard.SQUARES];  // never more than 60 moves a game
+        int latencyCount = 0;
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                     StandardCharsets.US_ASCII));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(),
+                     StandardCharsets.US_ASCII), true)) {
+            socket.setTcpNoDelay(true);
+            String greeting = in.readLine();
+            if (!GameServer.GREETING.equals(greeting)) {
+                sessionsRejected.increment();
+                return;
+            }
+            int[] moveBuffer = new int[32];
+            for (int game = 0; game < games; game++) {
+                out.println("NEW " + difficulty);
+                expect(in.readLine(), "OK");
+                OthelloBoard board = new OthelloBoard();  // local copy, kept in step with server's
+                String state = "PLAYING";
+                while (state.equals("PLAYING")) {
+                    int moveCount = board.getLegalMoves(Player.USER, moveBuffer);
+                    int move = moveBuffer[random.nextInt(moveCount)];
+                    long moveStart = System.nanoTime();
+                    String reply;
+                    long retryMillis = FIRST_RETRY_MILLIS;
+                    while (true) {
+                        out.println("MOVE " + BitBoard.squareName(move));
+                        reply = in.readLine();
+                        if (reply == null || !reply.startsWith("BUSY")) {
+                            break;
+                        }
+                        busyReplies.increment();
+                        Thread.sleep(retryMillis / 2 + random.nextInt((int) retryMillis));  // jitter spreads retries
+                        retryMillis = Math.min(LONGEST_RETRY_MILLIS, retryMillis * 2);
+                    }
+                    latencies[latencyCount++] = System.nanoTime() - moveStart;
+                    String[] words = expect(reply, "PLAYED").split(" ");
+                    board.runTurn(move / BitBoard.BOARD_SIZE, move % BitBoard.BOARD_SIZE, board.getUSER_SYMBOL());
+                    if (!words[1].equals("-")) {
+                        for (String programMove : words[1].split(",")) {
+                            int square = BitBoard.parseSquare(programMove);
+                            board.runTurn(square / BitBoard.BOARD_SIZE, square % BitBoard.BOARD_SIZE,
+                                    board.getPROGRAM_SYMBOL());
+                        }
+                    }
+                    if (board.getUserPiecesOnBoard() != Integer.parseInt(words[2])
+                            || board.getProgramPiecesOnBoard() != Integer.parseInt(words[3])) {
+                        throw new IllegalStateException("server's board doesn't match: " + reply);
+                    }
+                    state = words[4];
+                }
+                gamesFinished.increment();
+            }
+            out.println("QUIT");
+        } catch (IOException | RuntimeException e) {
+            errors.increment();
+            System.out.println("session " + session + " failed: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (sessionLatencies) {
+                sessionLatencies.add(Arrays.copyOf(latencies, latencyCount));
+            }
+        }
+    }
+
+    private static String expect(String reply, String command) {  // reply, if it's the one expected
+        if (reply == null || !reply.startsWith(command)) {
+            throw new IllegalStateException("expected " + command + ", got: " + reply);
+        }
+        return reply;
+    }
+
+    private void printReport(int sessions, double seconds) {
+        long[] latencies = sessionLatencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%d sessions, %d games, %d moves in %.1f sec (%.1f moves/sec)%n", sessions,
+                gamesFinished.sum(), latencies.length, seconds, latencies.length / seconds);
+        if (latencies.length > 0) {
+            System.out.printf("move latency ms: p50 %.1f, p90 %.1f, p99 %.1f, max %.1f%n", percentile(latencies, 0.5),
+                    percentile(latencies, 0.9), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+        }
+        System.out.printf("sessions turned away %d, BUSY replies %d, errors %d%n", sessionsRejected.sum(),
+                busyReplies.sum(), errors.sum());
+    }
+
+    private static double percentile(long[] sortedNanos, double fraction) {  // nearest rank, in milliseconds
+        int rank = (int) Math.ceil(fraction * sortedNanos.length);
+        return sortedNanos[Math.max(0, rank - 1)] / 1e6;
+    }
+}
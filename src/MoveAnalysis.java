@@ -0,0 +1,67 @@
+// October 18, 2026
+
+// score of one legal move found by SearchEngine.analyzeMoves, with the line of play expected to follow it
+
+public final class MoveAnalysis {
+    private final int move;
+    private final int score;
+    private final int depth;
+    private final int[] principalVariation;
+
+    public MoveAnalysis(int move, int score, int depth, int[] principalVariation) {
+        this.move = move;
+        this.score = score;
+        this.depth = depth;
+        this.principalVariation = principalVariation.clone();
+    }
+
+    public int getMove() {  // square
+        return move;
+    }
+
+    public int getScore() {
+        // from point of view of player making move, like SearchEngine's scores (won game is WIN_SCORE plus piece
+        // difference)
+        return score;
+    }
+
+    public int getDepth() {  // plies searched, move included
+        return depth;
+    }
+
+    public int[] getPrincipalVariation() {  // move then best replies as squares, -1 for a pass
+        return principalVariation.clone();
+    }
+
+    public boolean isGameResult() {  // true if score is a won or lost game (a draw scores 0, like an even position)
+        return Math.abs(score) > Evaluator.MAX_SCORE;
+    }
+
+    public int getPieceDifference() {  // final piece difference, if score is a game result
+        return score > 0 ? score - SearchEngine.WIN_SCORE : score < 0 ? score + SearchEngine.WIN_SCORE : 0;
+    }
+
+    public String getScoreText() {  // e.g. "+35", or "wins by 6" / "loses by 2" for a game result
+        if (isGameResult()) {
+            int pieceDifference = getPieceDifference();
+            return pieceDifference > 0 ? "wins by " + pieceDifference : "loses by " + -pieceDifference;
+        }
+        return String.format("%+d", score);
+    }
+
+    public String getPrincipalVariationText() {  // squares separated by spaces, e.g. "d3 c5 f6"
+        StringBuilder text = new StringBuilder();
+        for (int square : principalVariation) {
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            text.append(square < 0 ? "pass" : BitBoard.squareName(square));
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return BitBoard.squareName(move) + " " + getScoreText() + " (" + getPrincipalVariationText() + ")";
+    }
+}
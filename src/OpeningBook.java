@@ -0,0 +1,142 @@
+// October 18, 2026
+
+// read only opening book built by OpeningBookBuilder. holds searched best move for every position of the first plies
+// of the game, with the 8 symmetric versions of a position sharing one entry, sorted so a position is found by binary
+// search. file is memory mapped on first lookup, so nothing is read at startup and entries never live on the heap.
+// file layout (big endian): magic, version, most pieces on board of any entry, entry count (ints), then entries of
+// player's pieces (long), opponent's pieces (long), score (short), best move square (byte), search depth (byte), all
+// in position's canonical orientation (see BitBoard.canonicalSymmetry)
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class OpeningBook {
+    public static final int MAGIC = 0x4f424b31;  // "OBK1"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final int ENTRY_BYTES = 20;
+    public static final String DEFAULT_PATH = "othello.book";  // overridden with -Dothello.book=path
+
+    private final Path path;
+    private volatile boolean opened;  // set once file is mapped (or found missing), entries below are final after
+    private MappedByteBuffer entries;  // null if there's no book file
+    private int entryCount;
+    private int maxPiecesOnBoard;  // positions with more pieces than this can't be in book, so skip search
+
+    public OpeningBook(Path path) {  // doesn't touch file, it's opened on first lookup
+        this.path = path;
+    }
+
+    public static OpeningBook getDefault() {  // book shared by all boards, from othello.book system property
+        return DefaultBookHolder.BOOK;
+    }
+
+    private static class DefaultBookHolder {  // created on first use of default book
+        private static final OpeningBook BOOK =
+                new OpeningBook(Path.of(System.getProperty("othello.book", DEFAULT_PATH)));
+    }
+
+    public int findMove(long playerPieces, long opponentPieces, int minimumDepth, int maximumDepth) {
+        /* return book move (square) for player to move in position, or -1 if position isn't in book or its move
+        wasn't searched between minimum and maximum depth. a caller plays book moves only when they're about as
+        strong as its own search: a book built at low depth doesn't weaken harder difficulties, and one built deep
+        doesn't make easier ones play the opening at full strength */
+        int entryIndex = findEntry(playerPieces, opponentPieces);
+        if (entryIndex < 0 || getDepth(entryIndex) < minimumDepth || getDepth(entryIndex) > maximumDepth) {
+            return -1;
+        }
+        // book move is in canonical orientation, find legal move in actual position that maps onto it
+        int symmetry = BitBoard.canonicalSymmetry(playerPieces, opponentPieces);
+        long canonicalMove = 1L << (entries.get(entryOffset(entryIndex) + 18) & 0xff);
+        long legalMoves = BitBoard.legalMoves(playerPieces, opponentPieces);
+        while (legalMoves != 0) {
+            long move = legalMoves & -legalMoves;
+            if (BitBoard.transform(move, symmetry) == canonicalMove) {
+                return Long.numberOfTrailingZeros(move);
+            }
+            legalMoves ^= move;
+        }
+        return -1;
+    }
+
+    public int getEntryCount() {
+        ensureOpen();
+        return entryCount;
+    }
+
+    private int findEntry(long playerPieces, long opponentPieces) {
+        // binary search for position's canonical form, returns entry index or -1 if not found
+        ensureOpen();
+        if (entries == null || Long.bitCount(playerPieces | opponentPieces) > maxPiecesOnBoard) {
+            return -1;
+        }
+        int symmetry = BitBoard.canonicalSymmetry(playerPieces, opponentPieces);
+        long player = BitBoard.transform(playerPieces, symmetry);
+        long opponent = BitBoard.transform(opponentPieces, symmetry);
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int offset = entryOffset(middle);
+            int comparison = Long.compareUnsigned(entries.getLong(offset), player);
+            if (comparison == 0) {
+                comparison = Long.compareUnsigned(entries.getLong(offset + 8), opponent);
+            }
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private int getDepth(int entryIndex) {
+        return entries.get(entryOffset(entryIndex) + 19);
+    }
+
+    private static int entryOffset(int entryIndex) {
+        return HEADER_BYTES + entryIndex * ENTRY_BYTES;
+    }
+
+    private void ensureOpen() {
+        if (!opened) {
+            open();
+        }
+    }
+
+    private synchronized void open() {
+        /* map book file into memory. a missing file just means an empty book, and so does one that can't be read or
+        isn't a book (with one warning, on stderr so engine protocol output isn't broken), rather than every lookup
+        failing again. mapping stays valid after channel is closed */
+        if (opened) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("not an opening book: " + path);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION
+                    || size != HEADER_BYTES + (long) mapped.getInt(12) * ENTRY_BYTES) {
+                throw new IllegalStateException("not an opening book (or wrong version): " + path);
+            }
+            maxPiecesOnBoard = mapped.getInt(8);
+            entryCount = mapped.getInt(12);
+            entries = mapped;
+        } catch (NoSuchFileException e) {
+            entries = null;  // no book, every lookup misses
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("opening book not used, couldn't read " + path + ": " + e.getMessage());
+            entries = null;
+        }
+        opened = true;
+    }
+}
@@ -0,0 +1,204 @@
+// October 18, 2026
+
+// offline builder for OpeningBook. expands every position of the first plies of the game from the starting board,
+// folds symmetric positions into one, searches each on all cores and writes the sorted binary book file.
+// usage: java OpeningBookBuilder [--plies N] [--depth N] [--threads N] [--hash-megabytes N]
+//                                 [--games file [--min-count N]] [output]
+// book holds positions with player to move after 0 to plies - 1 moves, so the first plies moves of a game come from
+// it. book moves are only played by difficulties whose depth is at most depth and whose deepest search is at least
+// depth, so a book built at HARD's depth (default) is HARD's alone and easier difficulties keep searching.
+// with --games, book only holds positions reached at least min-count times (default 2) in a game log (see
+// GameDatabase) instead of every position, so it can go more plies deep where games actually go
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class OpeningBookBuilder {
+    private final int plies;
+    private final int searchDepth;
+    private final ThreadLocal<SearchEngine> engines;
+    private final AtomicLong positionsSearched = new AtomicLong();
+
+    public OpeningBookBuilder(int plies, int searchDepth, int hashMegabytes) {
+        this.plies = plies;
+        this.searchDepth = searchDepth;
+        engines = ThreadLocal.withInitial(() -> new SearchEngine(hashMegabytes, 1));
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int plies = 10;
+        int searchDepth = OthelloBoard.getSearchDepth(GameDifficulty.HARD);
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashMegabytes = 4;
+        Path output = Path.of(OpeningBook.DEFAULT_PATH);
+        Path games = null;
+        int minimumCount = 2;
+        for (int argIndex = 0; argIndex < args.length; argIndex++) {
+            switch (args[argIndex]) {
+                case "--plies" -> plies = Integer.parseInt(args[++argIndex]);
+                case "--depth" -> searchDepth = Integer.parseInt(args[++argIndex]);
+                case "--threads" -> threads = Integer.parseInt(args[++argIndex]);
+                case "--hash-megabytes" -> hashMegabytes = Integer.parseInt(args[++argIndex]);
+                case "--games" -> games = Path.of(args[++argIndex]);
+                case "--min-count" -> minimumCount = Integer.parseInt(args[++argIndex]);
+                default -> output = Path.of(args[argIndex]);
+            }
+        }
+        if (plies < 1 || searchDepth < 1 || searchDepth > Byte.MAX_VALUE) {
+            System.out.println("usage: java OpeningBookBuilder [--plies N] [--depth N] [--threads N] "
+                    + "[--hash-megabytes N] [--games file [--min-count N]] [output]");
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies, searchDepth, hashMegabytes);
+        List<Position> positions;
+        if (games == null) {
+            positions = builder.expandPositions();
+        } else {
+            try (GameDatabase database = new GameDatabase(games)) {
+                positions = builder.collectPositions(database, minimumCount);
+            }
+        }
+        System.out.printf("%d positions after folding symmetries, searching to depth %d%n", positions.size(),
+                searchDepth);
+        builder.searchPositions(positions, threads);
+        builder.write(positions, output);
+        System.out.printf("wrote %s (%d bytes) in %.1f sec%n", output, Files.size(output),
+                (System.nanoTime() - startTime) / 1e9);
+    }
+
+    public List<Position> expandPositions() {
+        /* every position in canonical form reached in fewer than plies moves from starting board, sorted in book
+        order. a position whose player to move has to pass isn't in book (and isn't expanded further), passes this
+        early are rare enough that engine can just search them */
+        OthelloBoard startingBoard = new OthelloBoard();  // user moves first
+        Set<Position> level = new HashSet<>();
+        level.add(Position.canonical(startingBoard.getPieces(Player.USER), startingBoard.getPieces(Player.PROGRAM)));
+        List<Position> positions = new ArrayList<>(level);
+        for (int ply = 1; ply < plies; ply++) {
+            Set<Position> nextLevel = new HashSet<>();
+            for (Position position : level) {
+                long legalMoves = BitBoard.legalMoves(position.player, position.opponent);
+                while (legalMoves != 0) {
+                    int move = Long.numberOfTrailingZeros(legalMoves);
+                    legalMoves &= legalMoves - 1;
+                    long flipped = BitBoard.flips(position.player, position.opponent, move);
+                    long opponentAfterMove = position.opponent & ~flipped;
+                    long playerAfterMove = position.player | flipped | (1L << move);
+                    if (BitBoard.legalMoves(opponentAfterMove, playerAfterMove) != 0) {
+                        nextLevel.add(Position.canonical(opponentAfterMove, playerAfterMove));
+                    }
+                }
+            }
+            positions.addAll(nextLevel);
+            level = nextLevel;
+            System.out.printf("ply %d: %d positions%n", ply, nextLevel.size());
+        }
+        positions.sort(null);
+        return positions;
+    }
+
+    public List<Position> collectPositions(GameDatabase database, int minimumCount) {
+        /* every position in canonical form with player to move in fewer than plies moves into a game in database,
+        reached at least minimumCount times (symmetric positions counted together), sorted in book order */
+        Map<Position, Integer> counts = new HashMap<>();
+        database.forEachPosition((player, opponent, firstPlayerToMove, move, ply) -> {
+            if (ply < plies) {
+                counts.merge(Position.canonical(player, opponent), 1, Integer::sum);
+            }
+        });
+        List<Position> positions = new ArrayList<>();
+        for (Map.Entry<Position, Integer> count : counts.entrySet()) {
+            if (count.getValue() >= minimumCount) {
+                positions.add(count.getKey());
+            }
+        }
+        System.out.printf("%d positions in games, %d reached at least %d times%n", counts.size(), positions.size(),
+                minimumCount);
+        positions.sort(null);
+        return positions;
+    }
+
+    public void searchPositions(List<Position> positions, int threads) throws InterruptedException {
+        // search every position for its best move and score, spread across given number of threads
+        ExecutorService searchThreads = Executors.newFixedThreadPool(threads);
+        for (Position position : positions) {
+            searchThreads.execute(() -> {
+                SearchEngine engine = engines.get();
+                position.bestMove = engine.findBestMove(position.player, position.opponent, searchDepth);
+                position.score = engine.getLastScore();
+                long searched = positionsSearched.incrementAndGet();
+                if (searched % Math.max(1, positions.size() / 10) == 0) {  // progress every 10%
+                    System.out.printf("%d/%d positions searched%n", searched, positions.size());
+                }
+            });
+        }
+        searchThreads.shutdown();
+        searchThreads.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    public void write(List<Position> positions, Path output) throws IOException {
+        // write header and entries in book order, see OpeningBook for layout
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeInt(4 + plies - 1);  // starting pieces plus one piece placed per move
+            out.writeInt(positions.size());
+            for (Position position : positions) {
+                out.writeLong(position.player);
+                out.writeLong(position.opponent);
+                out.writeShort(Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, position.score)));
+                out.writeByte(position.bestMove);
+                out.writeByte(searchDepth);
+            }
+        }
+    }
+
+    public static class Position implements Comparable<Position> {
+        // position in canonical orientation with player to move, and its search result once searched
+        private final long player;
+        private final long opponent;
+        private int bestMove;
+        private int score;
+
+        private Position(long player, long opponent) {
+            this.player = player;
+            this.opponent = opponent;
+        }
+
+        public static Position canonical(long player, long opponent) {
+            int symmetry = BitBoard.canonicalSymmetry(player, opponent);
+            return new Position(BitBoard.transform(player, symmetry), BitBoard.transform(opponent, symmetry));
+        }
+
+        @Override
+        public int compareTo(Position other) {  // book order, unsigned so it matches OpeningBook's binary search
+            int comparison = Long.compareUnsigned(player, other.player);
+            return comparison != 0 ? comparison : Long.compareUnsigned(opponent, other.opponent);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Position position && player == position.player && opponent == position.opponent;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(player * 31 + opponent);
+        }
+    }
+}
@@ -1,99 +1,145 @@
 // May 26, 2022
 
 import java.lang.StringBuilder;
+import java.util.List;
+import java.util.function.Consumer;
 
 public class OthelloBoard {
     private final String USER_SYMBOL = "x";  // string of symbol representing user's piece on board
     private final String PROGRAM_SYMBOL = "o";  // program's symbol
     private final String EMPTY_SPACE_SYMBOL = "\s";  // string for empty space
-
-    private final int BOARD_SIZE = 8;
-    private final String[][] BOARD = new String[BOARD_SIZE][BOARD_SIZE];  // 2D array to hold board with pieces on it
+    private final int USER_COLOR = Zobrist.FIRST_COLOR;  // colors used for hashing. user always goes first
+    private final int PROGRAM_COLOR = Zobrist.SECOND_COLOR;
+
+    private final int BOARD_SIZE = BitBoard.BOARD_SIZE;
+    private final int MAX_UNDO = 128;  // moves that can be made without being unmade, more than a game plus passes
+    private long userPieces;  // bitboards holding each player's pieces, bit (row * 8 + column) set where piece is
+    private long programPieces;
+    private long hash;  // Zobrist hash of pieces (user is first color), kept up to date as pieces are placed & flipped
+    private int userPiecesCount;  // piece counts, kept up to date as pieces are placed & flipped
+    private int programPiecesCount;
+    private int emptySquaresCount = BitBoard.SQUARES;
+
+    /* undo stack for makeMove/unmakeMove, created on first makeMove and not shared with copies. each move made
+    takes UNDO_ENTRY_SIZE longs: pieces it flipped, hash before it, and square it placed piece on (-1 if nothing was
+    placed, i.e. pass or illegal move) packed with last move before it */
+    private final int UNDO_ENTRY_SIZE = 3;
+    private long[] undoStack;
+    private int undoTop;  // index of next entry
 
     private int lastMoveRow = -1;  // hold indexes of last moves
     private int lastMoveCol = -1;
     private int movesToLookAhead;  // moves for program to look ahead (game's difficulty)
+    private GameDifficulty gameDifficulty;  // program's search depth and budget per move, null if not set
+    private int searchDepth;  // most plies for program's search engine to look ahead (game's difficulty)
+    private SearchEngine searchEngine;  // created on program's first turn, not shared with copies
+    private Ponderer ponderer;  // searches with board's engine on user's time, created when first started
+    private SearchStatistics lastMoveStatistics;  // how last engine or book move was found, null if none yet
 
-    private static int gamesPlayed = 0;
-    private static int userWins = 0;
-    private static int userLosses = 0;
-    private static int userTies = 0;
+    private GameStatistics gameStatistics;  // totals game's result is added to when it ends, null to not record it
+    private GameRecordWriter gameRecordWriter;  // log game's moves are written to when it ends, null to not record it
+    private byte[] moveHistory;  // squares played so far, kept only while recording
+    private int moveHistoryLength;
 
     public OthelloBoard() {  // default constructor
-        gamesPlayed++;
         setupBoard();
     }
 
     public OthelloBoard(OthelloBoard othelloBoardToCopy) {
-        /* copy constructor. doesn't increment boards used.
-        copy 2d array of board and other appropriate variables. all other fields are final or static.
-        doesn't increment games played as this is used for copying, not creating new game */
-        for (int row = 0; row < othelloBoardToCopy.BOARD.length; row++) {  // copy board's contents
-            for (int column = 0; column < othelloBoardToCopy.BOARD[row].length; column++) {
-                this.BOARD[row][column] = othelloBoardToCopy.BOARD[row][column];
-            }
-        }
+        /* copy constructor.
+        copy bitboards of board and other appropriate variables. all other fields are final.
+        doesn't record into game statistics as this is used for copying, not creating new game. moves made on board
+        being copied can't be unmade on copy */
+        this.userPieces = othelloBoardToCopy.userPieces;  // copy board's contents
+        this.programPieces = othelloBoardToCopy.programPieces;
+        this.hash = othelloBoardToCopy.hash;
+        this.userPiecesCount = othelloBoardToCopy.userPiecesCount;
+        this.programPiecesCount = othelloBoardToCopy.programPiecesCount;
+        this.emptySquaresCount = othelloBoardToCopy.emptySquaresCount;
         this.lastMoveRow = othelloBoardToCopy.lastMoveRow;  // copy other fields
         this.lastMoveCol = othelloBoardToCopy.lastMoveCol;
         this.movesToLookAhead = othelloBoardToCopy.movesToLookAhead;
+        this.gameDifficulty = othelloBoardToCopy.gameDifficulty;
+        this.searchDepth = othelloBoardToCopy.searchDepth;
     }
 
     public OthelloBoard(GameDifficulty gameDifficulty) {  // constructor with option to set game difficulty
         this();  // call default constructor for setup
         movesToLookAhead = getMovesToLookAhead(gameDifficulty);  // set moves to look ahead based on game difficulty
+        this.gameDifficulty = gameDifficulty;
+        searchDepth = gameDifficulty.getMaxDepth();
     }
 
-    public String getUSER_SYMBOL() {  // return symbol used for user
-        return USER_SYMBOL;
+    public OthelloBoard(GameDifficulty gameDifficulty, GameStatistics gameStatistics) {
+        // constructor with game difficulty that records game's result into statistics passed in when it ends
+        this(gameDifficulty);
+        this.gameStatistics = gameStatistics;
     }
 
-    public String getPROGRAM_SYMBOL() {  // return symbol used for program
-        return PROGRAM_SYMBOL;
+    public OthelloBoard(GamePosition position, GameDifficulty gameDifficulty) {
+        /* constructor for a board set up in given position (e.g. read from text), first player being user. board
+        doesn't keep whose turn it is, that's up to whoever plays on it */
+        this(gameDifficulty);
+        userPieces = position.getFirstPlayerPieces();
+        programPieces = position.getSecondPlayerPieces();
+        hash = Zobrist.pieceKeys(USER_COLOR, userPieces) ^ Zobrist.pieceKeys(PROGRAM_COLOR, programPieces);
+        userPiecesCount = Long.bitCount(userPieces);
+        programPiecesCount = Long.bitCount(programPieces);
+        emptySquaresCount = BitBoard.SQUARES - userPiecesCount - programPiecesCount;
     }
 
-    public static int getUserWins() {  // get total wins
-        return userWins;
+    public int getMovesToLookAhead() {  // moves nextBestMove looks ahead for this board's difficulty
+        return movesToLookAhead;
     }
 
-    public static int getUserLosses() {  // get total losses
-        return userLosses;
+    public int getSearchDepth() {  // most plies search engine looks ahead for this board's difficulty
+        return searchDepth;
     }
 
-    public static int getUserTies() {  // get total playerTies
-        return userTies;
+    public long getMoveTimeMillis() {
+        // time program may take for its move in current position at this board's difficulty, 0 for no limit
+        return gameDifficulty == null ? 0 : gameDifficulty.getMoveTimeMillis(emptySquaresCount);
     }
 
-    public static int getNumUserGamesPlayed() {  // get total games played
-        return gamesPlayed;
-    }
-
-    public static double getPercentageOfUserWins() {  // get percentage of wins out of total games played
-        return (double) userWins / gamesPlayed;
-    }
-
-    public static double getPercentageOfUserLosses() {  // get percentage of losses out of total games played
-        return (double) userLosses / gamesPlayed;
+    public String getUSER_SYMBOL() {  // return symbol used for user
+        return USER_SYMBOL;
     }
 
-    public static double getPercentageOfUserTies() {  // get percentage of playerTies out of total games played
-        return (double) userTies / gamesPlayed;
+    public String getPROGRAM_SYMBOL() {  // return symbol used for program
+        return PROGRAM_SYMBOL;
     }
 
-    public Player endGameAndGetWinner() {  // ends game (adds game to total wins/losses/ties) and returns winner
+    public Player endGameAndGetWinner() {
+        // ends game (adds game to board's statistics' wins/losses/ties, if it has any) and returns winner
+        stopPondering();
         int userPiecesOnBoard = getUserPiecesOnBoard();  // get total pieces on board for user & program
         int programPiecesOnBoard = getProgramPiecesOnBoard();
+        if (gameRecordWriter != null) {
+            gameRecordWriter.writeGame(moveHistory, moveHistoryLength);
+            gameRecordWriter = null;  // game is recorded once even if this is called again
+        }
+        if (gameStatistics != null) {
+            return gameStatistics.recordGame(userPiecesOnBoard, programPiecesOnBoard);
+        }
         if (userPiecesOnBoard > programPiecesOnBoard) {  // if user has more pieces, then user wins
-            userWins++;
             return Player.USER;
         } else if (programPiecesOnBoard > userPiecesOnBoard) {
-            userLosses++;
             return Player.PROGRAM;
         } else {
-            userTies++;
             return Player.TIE;
         }
     }
 
+    public void setGameRecordWriter(GameRecordWriter gameRecordWriter) {
+        // record game's moves into log when endGameAndGetWinner is called. must be set before first move
+        if (emptySquaresCount != BitBoard.SQUARES - 4) {
+            throw new IllegalStateException("game can only be recorded from its first move");
+        }
+        this.gameRecordWriter = gameRecordWriter;
+        moveHistory = new byte[GameRecordWriter.MAX_MOVES];
+        moveHistoryLength = 0;
+    }
+
     public int getUserPiecesOnBoard() {  // get number of user's pieces on board
         return getPiecesOnBoardCount(Player.USER);
     }
@@ -104,25 +150,124 @@ public class OthelloBoard {
 
     private int getPiecesOnBoardCount(Player player) {
         /* get number of pieces on board from player indicated */
-        String playerToTest = getPlayerString(player);  // assign appropriate string to test, based on indicated player
-        int piecesOnBoard = 0;
-        for (String[] row : BOARD) {
-            for (String column : row) {
-                if (column.equals(playerToTest)) {
-                    piecesOnBoard++;
-                }
-            }
-        }
-        return piecesOnBoard;
+        return player == Player.USER ? userPiecesCount : programPiecesCount;
+    }
+
+    public int getEmptySquaresCount() {  // get number of squares without a piece
+        return emptySquaresCount;
     }
 
     public int programsTurn() {
-        /* places piece for program based on difficulty set
+        /* places piece for program based on difficulty set, using this board's own search engine
         returns number of pieces flipped. so if no legal move then returns 0 */
-        int[] bestMoveFound = nextBestMove(PROGRAM_SYMBOL, USER_SYMBOL, movesToLookAhead);  // get best move for difficulty
-        int piecesFlipped = runTurn(bestMoveFound[0], bestMoveFound[1], PROGRAM_SYMBOL);  // run turn
-        lastMoveRow = bestMoveFound[0];  // update program's last move indexes
-        lastMoveCol = bestMoveFound[1];
+        if (searchEngine == null) {
+            searchEngine = new SearchEngine();
+        }
+        return programsTurn(searchEngine);
+    }
+
+    public int programsTurn(SearchEngine searchEngine) {
+        /* places piece for program based on difficulty set, searching with engine passed in (so engines can be
+        reused across boards). plays opening book's move instead of searching when book has one searched at least
+        as deep as difficulty but no deeper than difficulty ever searches (so EASY and MEDIUM skip a book built for
+        HARD), or the move pondered for user's last move if user played a predicted move (see
+        startPondering). returns number of pieces flipped. so if no legal move then returns 0 */
+        long startTime = System.nanoTime();
+        int bookMove = OpeningBook.getDefault().findMove(programPieces, userPieces,
+                gameDifficulty == null ? 0 : gameDifficulty.getDepth(),
+                gameDifficulty == null ? SearchEngine.MAX_DEPTH : gameDifficulty.getMaxDepth());
+        if (bookMove >= 0) {
+            if (ponderer != null) {
+                ponderer.clear();
+            }
+            lastMoveStatistics = SearchStatistics.bookMove(bookMove, System.nanoTime() - startTime);
+            new SearchEvent().commit(lastMoveStatistics);  // engine commits its own event for a searched move
+            return playMove(Player.PROGRAM, bookMove);
+        }
+        int ponderedMove = ponderer == null ? -1 : ponderer.findMove(programPieces, userPieces, searchDepth);
+        if (ponderedMove >= 0) {
+            lastMoveStatistics = SearchStatistics.ponderHit(ponderer.getLastHitStatistics(),
+                    System.nanoTime() - startTime);
+            new SearchEvent().commit(lastMoveStatistics);
+            return playMove(Player.PROGRAM, ponderedMove);
+        }
+        return playEngineMove(Player.PROGRAM, searchEngine, searchDepth, getMoveTimeMillis(),
+                gameDifficulty == null ? 0 : gameDifficulty.getNodeLimit());  // best move within difficulty's budget
+    }
+
+    public void startPondering() {
+        /* start searching program's replies to user's likely moves on a background thread while user thinks, with
+        board's own engine. stopped by stopPondering or when program next moves. does nothing if it's already
+        pondering current position */
+        if (searchEngine == null) {
+            searchEngine = new SearchEngine();
+        }
+        if (ponderer == null) {
+            ponderer = new Ponderer(searchEngine);
+        }
+        ponderer.start(userPieces, programPieces, PROGRAM_COLOR, searchDepth,
+                gameDifficulty == null ? 0 : gameDifficulty.getMoveTimeMillis(emptySquaresCount - 1),
+                gameDifficulty == null ? 0 : gameDifficulty.getNodeLimit());  // same budget as program's next move
+    }
+
+    public void stopPondering() {  // cancel pondering, waits for background search to stop
+        if (ponderer != null) {
+            ponderer.stop();
+        }
+    }
+
+    public Ponderer getPonderer() {  // for hit rate, null if board never pondered
+        return ponderer;
+    }
+
+    public int playEngineMove(Player player, SearchEngine searchEngine, int searchDepth, long timeLimitMillis) {
+        // overloaded method, searches without a node limit
+        return playEngineMove(player, searchEngine, searchDepth, timeLimitMillis, 0);
+    }
+
+    public int playEngineMove(Player player, SearchEngine searchEngine, int searchDepth, long timeLimitMillis,
+                              long nodeLimit) {
+        /* places piece for given player (user or program) at best move engine finds searching given depth, stopping
+        early if time limit or node limit (if above 0) runs out. returns number of pieces flipped, 0 if player has
+        no legal move */
+        stopPondering();  // engine may be board's own
+        int bestMoveFound = player == Player.USER ?
+                searchEngine.findBestMove(userPieces, programPieces, USER_COLOR, searchDepth, timeLimitMillis,
+                        nodeLimit) :
+                searchEngine.findBestMove(programPieces, userPieces, PROGRAM_COLOR, searchDepth, timeLimitMillis,
+                        nodeLimit);
+        lastMoveStatistics = bestMoveFound < 0 ? null : searchEngine.getLastStatistics();
+        return playMove(player, bestMoveFound);
+    }
+
+    public List<MoveAnalysis> analyzeMoves(Player player, int searchDepth, long timeLimitMillis,
+                                           Consumer<List<MoveAnalysis>> listener) {
+        /* score every legal move of player (e.g. user, for a hint) with board's own engine, best first, see
+        SearchEngine.analyzeMoves. listener gets ranking after each ply of depth. stops pondering, as engine is
+        shared with it */
+        if (searchEngine == null) {
+            searchEngine = new SearchEngine();
+        }
+        stopPondering();
+        return player == Player.USER ?
+                searchEngine.analyzeMoves(userPieces, programPieces, USER_COLOR, searchDepth, timeLimitMillis,
+                        listener) :
+                searchEngine.analyzeMoves(programPieces, userPieces, PROGRAM_COLOR, searchDepth, timeLimitMillis,
+                        listener);
+    }
+
+    public SearchStatistics getLastMoveStatistics() {
+        // how last move played by programsTurn or playEngineMove was found, null if it was a pass or there wasn't one
+        return lastMoveStatistics;
+    }
+
+    private int playMove(Player player, int square) {
+        // places piece for player at square (-1 if no legal move) and returns number of pieces flipped
+        int moveRow = square < 0 ? -1 : square / BOARD_SIZE;
+        int moveCol = square < 0 ? -1 : square % BOARD_SIZE;
+        int piecesFlipped = runTurn(moveRow, moveCol, getPlayerString(player));  // run turn
+        lastMoveRow = moveRow;  // update player's last move indexes
+        lastMoveCol = moveCol;
         return piecesFlipped;
     }
 
@@ -135,64 +280,124 @@ public class OthelloBoard {
         /* Flip pieces in all directions where valid.
          * playerSymbol - symbol (piece type/color) of player who's placing the piece this turn
          * returns number of pieces flipped, 0 if no pieces flipped (i.e., illegal move) */
-        int piecesFlipped = 0;
-        int[] directions = {-1, 0, 1};  // directions to flip (angles)
-        for (int rowDirection : directions) {
-            for (int colDirection : directions) {
-                if (rowDirection == 0 && colDirection == 0) {  // skip if both row & col direction would be 0
-                    continue;
-                }
-                piecesFlipped += flipPiecesSingleDirection(othelloBoard, rowIndexStart, colIndexStart, playerSymbol,
-                        rowDirection, colDirection);
-            }
+        if (!BitBoard.isOnBoard(rowIndexStart, colIndexStart)) {  // if illegal move then return 0
+            return 0;
         }
-        if (piecesFlipped > 0) {  // if move went, update the latest move's indexes
-            othelloBoard.lastMoveRow = rowIndexStart;
-            othelloBoard.lastMoveCol = colIndexStart;
+        long flipped = BitBoard.flips(othelloBoard.getPieces(playerSymbol), othelloBoard.getOpponentPieces(playerSymbol),
+                BitBoard.square(rowIndexStart, colIndexStart));  // every opponent piece this move would flip
+        if (flipped == 0) {
+            return 0;
         }
-        return piecesFlipped;
+        playMove(othelloBoard, rowIndexStart, colIndexStart, flipped, playerSymbol);
+        return Long.bitCount(flipped);
     }
 
-    private int flipPiecesSingleDirection(OthelloBoard othelloBoard, int rowIndexStart, int colIndexStart,
-                                          String playerSymbol, int rowDirection, int colDirection) {
-        /* flip pieces on array board passed in: pass in actual board to flip pieces or pass copy to see if legal or
-         * how many flips would happen
-         * Flip valid pieces starting from given row & col indexes in direction given */
-        int piecesFlipped = 0;
-        boolean hitOpponentPiece = false;
-        boolean hitEmptySpace = false;
-        if (rowIndexStart < 0 || colIndexStart < 0 || rowIndexStart >= othelloBoard.BOARD_SIZE  // if illegal move then return 0
-                || colIndexStart >= othelloBoard.BOARD_SIZE) {
-            return piecesFlipped;
+    private void playMove(OthelloBoard othelloBoard, int row, int column, long flipped, String playerSymbol) {
+        // place piece and flip pieces (known to be legal) for player, in one pass
+        flipPieces(othelloBoard, flipped | (1L << BitBoard.square(row, column)), playerSymbol);
+        if (othelloBoard.moveHistory != null) {
+            othelloBoard.moveHistory[othelloBoard.moveHistoryLength++] = (byte) BitBoard.square(row, column);
         }
+        // move went, update the latest move's indexes
+        othelloBoard.lastMoveRow = row;
+        othelloBoard.lastMoveCol = column;
+    }
 
-        int currentRowPosition = rowIndexStart + rowDirection;  // start from place after given indexes
-        int currentColPosition = colIndexStart + colDirection;
-        boolean inRange = !(currentRowPosition < 0 || currentRowPosition >= BOARD_SIZE ||
-                currentColPosition < 0 || currentColPosition >= BOARD_SIZE);  // flag to check if position is in range
-        while (inRange & !hitEmptySpace) {  // while position is in array's bounds and didn't hit empty space
-            if (othelloBoard.BOARD[currentRowPosition][currentColPosition].equals(playerSymbol)) {  // if hit players own piece
-                if (hitOpponentPiece) {  // flip pieces in between if had hit opponents piece in between
-                    piecesFlipped = -2;  // subtract beginning pieces as they're not being technically flipped, just placed
-                    while (!(currentRowPosition == rowIndexStart - rowDirection &&
-                            currentColPosition == colIndexStart - colDirection)) {
-                        // flip pieces until and including place where original piece was placed (places that pieces also)
-                        placePiece(othelloBoard, currentRowPosition, currentColPosition, playerSymbol);
-                        piecesFlipped++;
-                        currentColPosition -= colDirection;  // go backwards towards piece placed
-                        currentRowPosition -= rowDirection;
-                    }
-                }
-                break;  // end loop if hadn't hit opponents' piece yet - no pieces to flip, or if pieces were flipped
-            } else {  // if hit opponents piece or empty space, set hit opponent flag and continue in direction given
-                hitEmptySpace = othelloBoard.BOARD[currentRowPosition][currentColPosition].equals(EMPTY_SPACE_SYMBOL);
-                hitOpponentPiece = !hitEmptySpace;  // if didn't hit empty space, then that means opponent piece was hit
-                currentColPosition += colDirection;
-                currentRowPosition += rowDirection;
-                inRange = !(currentRowPosition < 0 | currentRowPosition >= BOARD_SIZE || currentColPosition < 0 || currentColPosition >= BOARD_SIZE);  // check if next move will be in range
+    public int makeMove(int row, int column, String playerSymbol) {
+        /* play move in place, recording what unmakeMove() needs to take it back, so lookahead can run on one board
+        instead of copies. an illegal move (e.g. -1, -1 when player has to pass) changes nothing but is still
+        recorded, so every makeMove is undone by exactly one unmakeMove. returns number of pieces flipped */
+        if (undoStack == null) {
+            undoStack = new long[MAX_UNDO * UNDO_ENTRY_SIZE];
+        }
+        if (undoTop == undoStack.length) {
+            throw new IllegalStateException("more than " + MAX_UNDO + " moves made without being unmade");
+        }
+        long flipped = BitBoard.isOnBoard(row, column) ? BitBoard.flips(getPieces(playerSymbol),
+                getOpponentPieces(playerSymbol), BitBoard.square(row, column)) : 0;
+        int square = flipped == 0 ? -1 : BitBoard.square(row, column);
+        undoStack[undoTop] = flipped;
+        undoStack[undoTop + 1] = hash;
+        undoStack[undoTop + 2] = packUndoMoves(square, lastMoveRow, lastMoveCol);
+        undoTop += UNDO_ENTRY_SIZE;
+        if (flipped == 0) {
+            return 0;
+        }
+        playMove(this, row, column, flipped, playerSymbol);
+        return Long.bitCount(flipped);
+    }
+
+    private static long packUndoMoves(int square, int lastMoveRow, int lastMoveCol) {
+        // each value + 1 (so -1 fits) in its own byte
+        return (square + 1) | (lastMoveRow + 1) << 8 | (lastMoveCol + 1) << 16;
+    }
+
+    public void unmakeMove() {
+        // take back last move made with makeMove(), restoring pieces, counts, hash and last move
+        if (undoTop == 0) {
+            throw new IllegalStateException("no move to unmake");
+        }
+        undoTop -= UNDO_ENTRY_SIZE;
+        int packedMoves = (int) undoStack[undoTop + 2];
+        int square = (packedMoves & 0xff) - 1;
+        if (square >= 0) {
+            long piece = 1L << square;
+            long flipped = undoStack[undoTop];
+            int flippedCount = Long.bitCount(flipped);
+            if ((userPieces & piece) != 0) {  // user made move, flipped pieces go back to program
+                userPieces &= ~(piece | flipped);
+                programPieces |= flipped;
+                userPiecesCount -= flippedCount + 1;
+                programPiecesCount += flippedCount;
+            } else {
+                programPieces &= ~(piece | flipped);
+                userPieces |= flipped;
+                programPiecesCount -= flippedCount + 1;
+                userPiecesCount += flippedCount;
+            }
+            emptySquaresCount++;
+            hash = undoStack[undoTop + 1];
+            if (moveHistory != null) {
+                moveHistoryLength--;
             }
         }
-        return piecesFlipped;
+        lastMoveRow = ((packedMoves >>> 8) & 0xff) - 1;
+        lastMoveCol = ((packedMoves >>> 16) & 0xff) - 1;
+    }
+
+    private void flipPieces(OthelloBoard othelloBoard, long piecesToFlip, String playerSymbol) {
+        // flip all pieces in mask over to given player. empty squares in mask get player's piece placed
+        long emptySquares = ~(othelloBoard.userPieces | othelloBoard.programPieces);
+        long piecesPlaced = piecesToFlip & emptySquares;
+        long piecesChangingColor = piecesToFlip & othelloBoard.getOpponentPieces(playerSymbol);
+        othelloBoard.hash ^= Zobrist.pieceKeys(isUserSymbol(playerSymbol) ? USER_COLOR : PROGRAM_COLOR, piecesPlaced)
+                ^ Zobrist.flipKeys(piecesChangingColor);
+        int placedCount = Long.bitCount(piecesPlaced);
+        int changingColorCount = Long.bitCount(piecesChangingColor);
+        othelloBoard.emptySquaresCount -= placedCount;
+        if (isUserSymbol(playerSymbol)) {
+            othelloBoard.userPieces |= piecesToFlip;
+            othelloBoard.programPieces &= ~piecesToFlip;
+            othelloBoard.userPiecesCount += placedCount + changingColorCount;
+            othelloBoard.programPiecesCount -= changingColorCount;
+        } else {
+            othelloBoard.programPieces |= piecesToFlip;
+            othelloBoard.userPieces &= ~piecesToFlip;
+            othelloBoard.programPiecesCount += placedCount + changingColorCount;
+            othelloBoard.userPiecesCount -= changingColorCount;
+        }
+    }
+
+    private boolean isUserSymbol(String playerSymbol) {  // true if symbol is user's, otherwise it's treated as program's
+        return USER_SYMBOL.equals(playerSymbol);
+    }
+
+    private long getPieces(String playerSymbol) {  // get bitboard of pieces for player with given symbol
+        return isUserSymbol(playerSymbol) ? userPieces : programPieces;
+    }
+
+    private long getOpponentPieces(String playerSymbol) {  // get bitboard of pieces for opponent of given symbol
+        return isUserSymbol(playerSymbol) ? programPieces : userPieces;
     }
 
     public boolean isSomeLegalMoveLeft() {
@@ -218,14 +423,39 @@ public class OthelloBoard {
 
     private boolean isSomeLegalMoveLeft(OthelloBoard othelloBoard, String playersSymbol) {
         // return true or false indicating if a legal move is present on given instance of board for given player
-        for (int row = 0; row < BOARD.length; row++) {
-            for (int column = 0; column < BOARD[row].length; column++) {
-                if (isLegalMove(othelloBoard, row, column, playersSymbol)) {  // if legal move found return true
-                    return true;
-                }
-            }
+        return othelloBoard.getLegalMoves(playersSymbol) != 0;
+    }
+
+    public long getLegalMoves(Player player) {
+        /* return mask of every legal move for given player in one pass. bit (row * 8 + column) is set for each legal
+        location, so 0 means player has no legal move */
+        return getLegalMoves(getPlayerString(player));
+    }
+
+    public long getPieces(Player player) {  // bitboard of player's pieces, bit (row * 8 + column) set where piece is
+        return player == Player.USER ? userPieces : programPieces;
+    }
+
+    public long getHash(Player playerToMove) {
+        // return Zobrist hash of board with given player to move
+        return hash ^ Zobrist.sideToMoveKey(playerToMove == Player.USER ? USER_COLOR : PROGRAM_COLOR);
+    }
+
+    public int getLegalMoves(Player player, int[] moveBuffer) {
+        /* fill buffer passed in with square index (row * 8 + column) of every legal move for given player and return
+        number of moves written. buffer must hold at least 32 entries (more legal moves than that can't happen) and can
+        be reused between calls so nothing is allocated */
+        long legalMoves = getLegalMoves(player);
+        int moveCount = 0;
+        while (legalMoves != 0) {
+            moveBuffer[moveCount++] = Long.numberOfTrailingZeros(legalMoves);
+            legalMoves &= legalMoves - 1;  // clear lowest move found
         }
-        return false;  // if no legal move found return false (there's no legal move remaining)
+        return moveCount;
+    }
+
+    private long getLegalMoves(String playersSymbol) {  // return mask of legal moves for player with given symbol
+        return BitBoard.legalMoves(getPieces(playersSymbol), getOpponentPieces(playersSymbol));
     }
 
     public boolean isLegalMove(int row, int column, String playersSymbol) {
@@ -240,15 +470,12 @@ public class OthelloBoard {
 
     private int numberPiecesWouldBeFlipped(OthelloBoard othelloBoard, int row, int column, String playersSymbol) {
         /* returns number of pieces that would be flipped with piece placed at given position.
-         Does not place pieces on actual board, uses copy.
+         Read only probe - computes flip mask from bitboards without placing or copying anything.
          pieces would only flip if it is a legal move so if function returns > 0, then move is legal */
-        boolean outOfRange = row < 0 || row >= BOARD.length || column < 0 || column >= BOARD[0].length;  // true if position is out of array's range
-        if (!outOfRange) {  // check if position is empty if it's in range
-            boolean spaceEmpty = othelloBoard.BOARD[row][column].equals(EMPTY_SPACE_SYMBOL);  // is space at position empty
-            if (spaceEmpty) {
-                return runTurn(othelloBoard.copy(), row, column, playersSymbol);
-                // if in array's range and space is empty, return number of pieces that would be flipped
-            }
+        boolean outOfRange = !BitBoard.isOnBoard(row, column);  // true if position is out of board's range
+        if (!outOfRange) {  // flip mask is empty for occupied squares, so only range has to be checked here
+            return Long.bitCount(BitBoard.flips(othelloBoard.getPieces(playersSymbol),
+                    othelloBoard.getOpponentPieces(playersSymbol), BitBoard.square(row, column)));
         }
         // otherwise, return 0 to indicate an illegal move
         return 0;
@@ -261,15 +488,27 @@ public class OthelloBoard {
 
     private void placePiece(OthelloBoard othelloBoard, int row, int column, String playersSymbol) {
         // place piece at specified location with given player symbol.
-        othelloBoard.BOARD[row][column] = playersSymbol;
+        long piece = 1L << BitBoard.square(row, column);
+        flipPieces(othelloBoard, piece, playersSymbol);
     }
 
-    private void setupBoard() {  // setup board with whitespace and first four pieces placed
-        for (int row = 0; row < BOARD.length; row++) {
-            for (int column = 0; column < BOARD[row].length; column++) {
-                BOARD[row][column] = EMPTY_SPACE_SYMBOL;
-            }
+    private String getSymbolAt(int row, int column) {  // get symbol of piece at location, or empty space symbol
+        long piece = 1L << BitBoard.square(row, column);
+        if ((userPieces & piece) != 0) {
+            return USER_SYMBOL;
+        } else if ((programPieces & piece) != 0) {
+            return PROGRAM_SYMBOL;
         }
+        return EMPTY_SPACE_SYMBOL;
+    }
+
+    private void setupBoard() {  // setup empty board and first four pieces placed
+        userPieces = 0;
+        programPieces = 0;
+        hash = 0;
+        userPiecesCount = 0;
+        programPiecesCount = 0;
+        emptySquaresCount = BitBoard.SQUARES;
         placePiece(3, 4, USER_SYMBOL);
         placePiece(4, 3, USER_SYMBOL);
         placePiece(3, 3, PROGRAM_SYMBOL);
@@ -292,9 +531,9 @@ public class OthelloBoard {
             boardString.append(columnHeaders[columnIndex]).append("\s\s\s");
         }
         boardString.append("\n\s\s\s\s\s\s---------------------------------\n");
-        for (int row = 0; row < BOARD.length; row++) {
+        for (int row = 0; row < BOARD_SIZE; row++) {
             boardString.append(row + 1).append("\s\s\s\s\s");  // row headers and spacing
-            for (int column = 0; column < BOARD[row].length; column++) {
+            for (int column = 0; column < BOARD_SIZE; column++) {
                 /* If move is last move than format specially. if move is move before the last move then don't include
                  * standard separator between cells because it was provided by the specially formatted cell.
                  * if up to first column (0) and highlight last move is false, then add first separator for cell.
@@ -305,11 +544,11 @@ public class OthelloBoard {
                     boardString.append("|");
                 }
                 if (highlightLastMove && row == lastMoveRow && column == lastMoveCol) {
-                    boardString.append("\\\s").append(BOARD[row][column].toUpperCase()).append("\s/");
+                    boardString.append("\\\s").append(getSymbolAt(row, column).toUpperCase()).append("\s/");
                 } else if (highlightLastMove && row == lastMoveRow && (column == lastMoveCol - 1)) {
-                    boardString.append("\s").append(BOARD[row][column]).append("\s");
+                    boardString.append("\s").append(getSymbolAt(row, column)).append("\s");
                 } else {
-                    boardString.append("\s").append(BOARD[row][column]).append("\s|");
+                    boardString.append("\s").append(getSymbolAt(row, column)).append("\s|");
                 }
             }
             boardString.append("\n\s\s\s\s\s\s---------------------------------\n");
@@ -317,10 +556,6 @@ public class OthelloBoard {
         return boardString.toString();
     }
 
-    private OthelloBoard copy() {  // return reference to copy of this instance of othelloBoard
-        return new OthelloBoard(this);
-    }
-
     public int[] nextBestMove(String playersSymbol, String opponentSymbol, int movesToLookAhead) {
         // overloaded method for this instance of OthelloBoard
         return nextBestMove(this, playersSymbol, opponentSymbol, movesToLookAhead);
@@ -335,65 +570,75 @@ public class OthelloBoard {
         given player by taking total pieces would be flipped by player minus the same for their opponent, preferring side
         pieces. Method only calculates the moves ahead given (>3 results in long processing time).
         */
+        int bestSquare = nextBestSquare(othelloBoard, playersSymbol, opponentSymbol, movesToLookAhead);
         int[] bestMove = new int[2];  // array to hold row & column index
+        bestMove[0] = bestSquare < 0 ? -1 : bestSquare / BOARD_SIZE;
+        bestMove[1] = bestSquare < 0 ? -1 : bestSquare % BOARD_SIZE;
+        return bestMove;
+    }
+
+    private int nextBestSquare(OthelloBoard othelloBoard, String playersSymbol, String opponentSymbol,
+                               int movesToLookAhead) {
+        /* nextBestMove, returning square of best move (-1 if none). moves are simulated on board passed in with
+        makeMove and taken back with unmakeMove, so board is left as it was and nothing is allocated */
         int rowIndex = -1;
         int columnIndex = -1;
-        bestMove[0] = rowIndex;
-        bestMove[1] = columnIndex;
         if (!othelloBoard.isSomeLegalMoveLeft()) {  // if no legal moves then return
-            return bestMove;
+            return -1;
         }
         int bestTotalGainInPieces = Integer.MIN_VALUE;  // store the highest number of gain in pieces found for move
-        String[][] board = othelloBoard.BOARD;  // for conciseness
-
-        for (int row = 0; row < board.length; row++) {
-            for (int column = 0; column < board[row].length; column++) {
-                if (othelloBoard.isLegalMove(row, column, playersSymbol)) {  // if this is a legal move then check
-                    int movesAheadChecked = 0;  // counter for moves ahead checked
-                    OthelloBoard boardCheck = new OthelloBoard(othelloBoard);  // create copy of board to simulate moves
-                    // place piece here for calling player and add pieces flipped to total
-                    int playerEndScoreWouldBe = boardCheck.runTurn(row, column, playersSymbol);
-                    int opponentsEndScoreWouldBe = 0;
-
-                    while (movesAheadChecked < movesToLookAhead && isSomeLegalMoveLeft(boardCheck)) {
-                        // while didn't check up to moves ahead specified and game isn't over
-                        movesAheadChecked++;
-                        int movesLeftToCheck = movesToLookAhead - movesAheadChecked;  // moves ahead left to check
-
-                        // place best move for calling player's opponent and add pieces flipped to their total
-                        int[] opponentsNextMove = boardCheck.nextBestMove(boardCheck, opponentSymbol,
-                                playersSymbol, movesLeftToCheck);
-                        opponentsEndScoreWouldBe += runTurn(boardCheck, opponentsNextMove[0], opponentsNextMove[1],
-                                opponentSymbol);
-
-                        // simulate calling player's own move after opponents next move and add that to their total
-                        int[] playersNextMove = boardCheck.nextBestMove(boardCheck, playersSymbol,
-                                opponentSymbol, movesLeftToCheck);  // place best move for calling player's next turn
-                        playerEndScoreWouldBe += boardCheck.runTurn(playersNextMove[0], playersNextMove[1], playersSymbol);
-                    }
-                    // calculate if this move is best:
-                    boolean isGreaterThanLastHighestMoveFound =
-                            playerEndScoreWouldBe - opponentsEndScoreWouldBe > bestTotalGainInPieces;
-                    boolean isEqualToLastHighestMoveFound =
-                            playerEndScoreWouldBe - opponentsEndScoreWouldBe == bestTotalGainInPieces;
-                    boolean isSidePlace =  // if pieces is on edge of board (generally better moves)
-                            row == 0 || row == othelloBoard.BOARD.length - 1 ||
-                                    column == 0 || column == othelloBoard.BOARD.length - 1;
-                    // set this move as new best move found if it results in the greatest gain in pieces, OR results in equal
-                    // gain in pieces as last highest move found, but it is a side piece
-                    if (isGreaterThanLastHighestMoveFound || (isEqualToLastHighestMoveFound && isSidePlace)) {
-                        // update number of pieces best move so far would ultimately get and indexes
-                        bestTotalGainInPieces = playerEndScoreWouldBe - opponentsEndScoreWouldBe;
-                        rowIndex = row;
-                        columnIndex = column;
-                    }
-                }
+        long legalMoves = othelloBoard.getLegalMoves(playersSymbol);  // check every legal move, lowest square first
+        while (legalMoves != 0) {
+            int square = Long.numberOfTrailingZeros(legalMoves);
+            legalMoves &= legalMoves - 1;
+            int row = square / BOARD_SIZE;
+            int column = square % BOARD_SIZE;
+            int movesAheadChecked = 0;  // counter for moves ahead checked
+            // place piece here for calling player and add pieces flipped to total, all moves made are unmade below
+            int playerEndScoreWouldBe = othelloBoard.makeMove(row, column, playersSymbol);
+            int movesMade = 1;
+            int opponentsEndScoreWouldBe = 0;
+
+            while (movesAheadChecked < movesToLookAhead && isSomeLegalMoveLeft(othelloBoard)) {
+                // while didn't check up to moves ahead specified and game isn't over
+                movesAheadChecked++;
+                int movesLeftToCheck = movesToLookAhead - movesAheadChecked;  // moves ahead left to check
+
+                // place best move for calling player's opponent and add pieces flipped to their total
+                int opponentsNextMove = nextBestSquare(othelloBoard, opponentSymbol, playersSymbol, movesLeftToCheck);
+                opponentsEndScoreWouldBe += othelloBoard.makeSquareMove(opponentsNextMove, opponentSymbol);
+
+                // simulate calling player's own move after opponents next move and add that to their total
+                int playersNextMove = nextBestSquare(othelloBoard, playersSymbol, opponentSymbol, movesLeftToCheck);
+                playerEndScoreWouldBe += othelloBoard.makeSquareMove(playersNextMove, playersSymbol);
+                movesMade += 2;
+            }
+            for (; movesMade > 0; movesMade--) {  // take back simulated moves
+                othelloBoard.unmakeMove();
+            }
+            // calculate if this move is best:
+            boolean isGreaterThanLastHighestMoveFound =
+                    playerEndScoreWouldBe - opponentsEndScoreWouldBe > bestTotalGainInPieces;
+            boolean isEqualToLastHighestMoveFound =
+                    playerEndScoreWouldBe - opponentsEndScoreWouldBe == bestTotalGainInPieces;
+            boolean isSidePlace =  // if pieces is on edge of board (generally better moves)
+                    row == 0 || row == BOARD_SIZE - 1 ||
+                            column == 0 || column == BOARD_SIZE - 1;
+            // set this move as new best move found if it results in the greatest gain in pieces, OR results in equal
+            // gain in pieces as last highest move found, but it is a side piece
+            if (isGreaterThanLastHighestMoveFound || (isEqualToLastHighestMoveFound && isSidePlace)) {
+                // update number of pieces best move so far would ultimately get and indexes
+                bestTotalGainInPieces = playerEndScoreWouldBe - opponentsEndScoreWouldBe;
+                rowIndex = row;
+                columnIndex = column;
             }
         }
-        // return best move indexes and number of pieces would be flipped by that move
-        bestMove[0] = rowIndex;
-        bestMove[1] = columnIndex;
-        return bestMove;
+        return rowIndex < 0 ? -1 : BitBoard.square(rowIndex, columnIndex);
+    }
+
+    private int makeSquareMove(int square, String playerSymbol) {  // makeMove by square, -1 for no move
+        return square < 0 ? makeMove(-1, -1, playerSymbol) : makeMove(square / BOARD_SIZE, square % BOARD_SIZE,
+                playerSymbol);
     }
 
     private int getMovesToLookAhead(GameDifficulty gameDifficulty) {
@@ -408,4 +653,10 @@ public class OthelloBoard {
             return 4;
         }
     }
+
+    static int getSearchDepth(GameDifficulty gameDifficulty) {
+        /* return plies a fixed depth search looks ahead to play like game difficulty set (which searches within a
+        budget instead, see GameDifficulty). easy only looks at its own move, like moves to look ahead of 0 */
+        return gameDifficulty.getDepth();
+    }
 }
@@ -0,0 +1,436 @@
+// October 18, 2026
+
+// table driven evaluation. board is split into patterns (edges, 3x3 corners, 2x5 corner regions, diagonals of 4 to 8
+// squares), every instance of a pattern reads its squares as a base 3 number (0 empty, 1 player's, 2 opponent's) and
+// looks up its weight in one flat table, plus weighted mobility, frontier and piece differences. each game stage
+// (by empty squares) has its own weights.
+// pattern instances are the same squares in the board's 8 symmetric orientations, so one table serves all of them.
+// indexes are read straight off the bitboards, a row at a time through a byte to base 3 table, and diagonals are
+// gathered into a byte with a multiply.
+// weights are read at startup from a weight file written by EvaluationTuner (othello.weights, or -Dothello.weights=
+// path), and are hand made if there isn't one. file layout (big endian): magic, version, stages, weights per stage
+// (ints), then every pattern weight (short) stage after stage, then mobility, frontier and piece weights (ints, one
+// per stage)
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class PatternEvaluator implements Evaluator {
+    public static final int MAGIC = 0x4f455731;  // "OEW1"
+    public static final int VERSION = 1;
+    public static final String DEFAULT_PATH = "othello.weights";  // overridden with -Dothello.weights=path
+    public static final int STAGES = 4;
+    private static final int SQUARES_PER_STAGE = 15;  // empty squares covered by each stage, 60 to 0
+
+    // pattern families, each with a table of 3^squares weights
+    public static final int EDGE = 0;  // row 0
+    public static final int CORNER_3X3 = 1;  // rows 0-2, columns 0-2
+    public static final int CORNER_2X5 = 2;  // rows 0-1, columns 0-4
+    public static final int DIAGONAL_8 = 3;  // square (8 - length + i, i) is digit i, longest first
+    public static final int DIAGONAL_7 = 4;
+    public static final int DIAGONAL_6 = 5;
+    public static final int DIAGONAL_5 = 6;
+    public static final int DIAGONAL_4 = 7;
+    public static final int PATTERNS = 8;
+    private static final int[][] PATTERN_SQUARES = new int[PATTERNS][];  // board squares of each digit
+    private static final int[] PATTERN_OFFSETS = new int[PATTERNS];  // where pattern's table starts in a stage
+    public static final int STAGE_SIZE;  // weights in one stage
+    public static final int PATTERN_INSTANCES = 34;  // pattern instances on board, see getPatternIndexes()
+    private static final int[] INSTANCE_PATTERNS = new int[PATTERN_INSTANCES];  // pattern of each instance
+
+    private static final int[] BASE3 = new int[256];  // byte read as base 3 with each set bit a 1 digit
+    private static final long[] DIAGONAL_MASKS = new long[BitBoard.BOARD_SIZE + 1];  // below main diagonal by length
+    private static final long DIAGONAL_GATHER = 0x0101010101010101L;  // multiply collects each column into top byte
+
+    // weights of hand made default
+    private static final int[] SQUARE_WEIGHTS = {
+            100, -20, 10, 5, 5, 10, -20, 100,
+            -20, -50, -2, -2, -2, -2, -50, -20,
+            10, -2, -1, -1, -1, -1, -2, 10,
+            5, -2, -1, -1, -1, -1, -2, 5,
+            5, -2, -1, -1, -1, -1, -2, 5,
+            10, -2, -1, -1, -1, -1, -2, 10,
+            -20, -50, -2, -2, -2, -2, -50, -20,
+            100, -20, 10, 5, 5, 10, -20, 100};
+    private static final int STABLE_EDGE_WEIGHT = 20;  // per piece that can't be flipped along edge
+    private static final int[] DEFAULT_MOBILITY_WEIGHTS = {12, 10, 8, 4};  // per legal move more than opponent
+    private static final int[] DEFAULT_FRONTIER_WEIGHTS = {-6, -5, -4, -2};  // per piece next to an empty square
+    private static final int[] DEFAULT_PIECE_WEIGHTS = {0, 0, 2, 6};  // per piece more than opponent
+
+    private final short[] weights;  // STAGES * STAGE_SIZE pattern weights, stage after stage
+    private final int[] mobilityWeights;  // one per stage
+    private final int[] frontierWeights;
+    private final int[] pieceWeights;
+
+    static {
+        for (int bits = 0; bits < BASE3.length; bits++) {
+            for (int bit = 7, power = 2187; bit >= 0; bit--, power /= 3) {
+                BASE3[bits] += ((bits >>> bit) & 1) * power;
+            }
+        }
+        PATTERN_SQUARES[EDGE] = squares(1, 8);
+        PATTERN_SQUARES[CORNER_3X3] = squares(3, 3);
+        PATTERN_SQUARES[CORNER_2X5] = squares(2, 5);
+        for (int length = 4; length <= BitBoard.BOARD_SIZE; length++) {
+            int[] diagonal = new int[length];
+            for (int digit = 0; digit < length; digit++) {
+                diagonal[digit] = BitBoard.square(BitBoard.BOARD_SIZE - length + digit, digit);
+                DIAGONAL_MASKS[length] |= 1L << diagonal[digit];
+            }
+            PATTERN_SQUARES[DIAGONAL_8 + BitBoard.BOARD_SIZE - length] = diagonal;
+        }
+        int offset = 0;
+        for (int pattern = 0; pattern < PATTERNS; pattern++) {
+            PATTERN_OFFSETS[pattern] = offset;
+            offset += power3(PATTERN_SQUARES[pattern].length);
+        }
+        STAGE_SIZE = offset;
+        int instance = 0;
+        for (int orientation = 0; orientation < BitBoard.SYMMETRIES; orientation++) {  // same order as evaluate
+            INSTANCE_PATTERNS[instance++] = CORNER_2X5;
+            if (orientation < 4) {
+                INSTANCE_PATTERNS[instance++] = CORNER_3X3;
+            }
+            if ((orientation & 2) == 0) {
+                INSTANCE_PATTERNS[instance++] = EDGE;
+            }
+        }
+        for (int side = 0; side < 2; side++) {
+            INSTANCE_PATTERNS[instance++] = DIAGONAL_8;
+            for (int length = 4; length < BitBoard.BOARD_SIZE; length++) {
+                INSTANCE_PATTERNS[instance++] = DIAGONAL_8 + BitBoard.BOARD_SIZE - length;
+                INSTANCE_PATTERNS[instance++] = DIAGONAL_8 + BitBoard.BOARD_SIZE - length;
+            }
+        }
+    }
+
+    private static int[] squares(int rows, int columns) {  // squares of top left block, row after row
+        int[] squares = new int[rows * columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                squares[row * columns + column] = BitBoard.square(row, column);
+            }
+        }
+        return squares;
+    }
+
+    private static int power3(int exponent) {
+        int power = 1;
+        for (int i = 0; i < exponent; i++) {
+            power *= 3;
+        }
+        return power;
+    }
+
+    public PatternEvaluator(short[] weights, int[] mobilityWeights, int[] frontierWeights, int[] pieceWeights) {
+        // evaluator with given weights, pattern weights laid out as getPatternWeightIndex() describes
+        if (weights.length != STAGES * STAGE_SIZE || mobilityWeights.length != STAGES
+                || frontierWeights.length != STAGES || pieceWeights.length != STAGES) {
+            throw new IllegalArgumentException("expected " + STAGES + " stages of " + STAGE_SIZE + " weights");
+        }
+        this.weights = weights;
+        this.mobilityWeights = mobilityWeights;
+        this.frontierWeights = frontierWeights;
+        this.pieceWeights = pieceWeights;
+    }
+
+    public static PatternEvaluator getDefault() {
+        // weights from othello.weights system property's file if it exists, hand made otherwise. read on first use
+        return DefaultEvaluatorHolder.EVALUATOR;
+    }
+
+    public static PatternEvaluator getHandMade() {  // built in weights, built on first use
+        return HandMadeEvaluatorHolder.EVALUATOR;
+    }
+
+    private static class DefaultEvaluatorHolder {
+        private static final PatternEvaluator EVALUATOR = loadDefault();
+    }
+
+    private static class HandMadeEvaluatorHolder {
+        private static final PatternEvaluator EVALUATOR = createHandMade();
+    }
+
+    private static PatternEvaluator loadDefault() {
+        Path path = Path.of(System.getProperty("othello.weights", DEFAULT_PATH));
+        return Files.exists(path) ? load(path) : getHandMade();
+    }
+
+    public static PatternEvaluator load(Path path) {
+        // read weight file written by write(), IllegalStateException if it isn't one or is for other patterns
+        ByteBuffer file;
+        try {
+            file = ByteBuffer.wrap(Files.readAllBytes(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("couldn't read weight file " + path, e);
+        }
+        try {
+            if (file.getInt() != MAGIC || file.getInt() != VERSION || file.getInt() != STAGES
+                    || file.getInt() != STAGE_SIZE) {
+                throw new IllegalStateException("not a weight file for these patterns (or wrong version): " + path);
+            }
+            short[] weights = new short[STAGES * STAGE_SIZE];
+            file.asShortBuffer().get(weights);
+            file.position(file.position() + weights.length * Short.BYTES);
+            int[][] stageWeights = new int[3][STAGES];  // mobility, frontier, piece
+            for (int[] termWeights : stageWeights) {
+                for (int stage = 0; stage < STAGES; stage++) {
+                    termWeights[stage] = file.getInt();
+                }
+            }
+            if (file.hasRemaining()) {
+                throw new IllegalStateException("unexpected bytes at end of weight file " + path);
+            }
+            return new PatternEvaluator(weights, stageWeights[0], stageWeights[1], stageWeights[2]);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalStateException("weight file cut short: " + path);
+        }
+    }
+
+    public void write(Path path) throws IOException {  // write weights in file layout load() reads
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(STAGES);
+            out.writeInt(STAGE_SIZE);
+            for (short weight : weights) {
+                out.writeShort(weight);
+            }
+            for (int[] termWeights : new int[][]{mobilityWeights, frontierWeights, pieceWeights}) {
+                for (int weight : termWeights) {
+                    out.writeInt(weight);
+                }
+            }
+        }
+    }
+
+    public short[] getPatternWeights() {  // copy, laid out as getPatternWeightIndex() describes
+        return weights.clone();
+    }
+
+    public int[] getMobilityWeights() {  // copy, one per stage
+        return mobilityWeights.clone();
+    }
+
+    public int[] getFrontierWeights() {
+        return frontierWeights.clone();
+    }
+
+    public int[] getPieceWeights() {
+        return pieceWeights.clone();
+    }
+
+    public static int getPatternWeightIndex(int stage, int pattern, int patternIndex) {
+        // where weight for pattern's base 3 index is in flat weight table
+        return stage * STAGE_SIZE + PATTERN_OFFSETS[pattern] + patternIndex;
+    }
+
+    public static int getStage(int emptySquares) {
+        return Math.min(STAGES - 1, (60 - emptySquares) / SQUARES_PER_STAGE);
+    }
+
+    public static int getInstancePattern(int instance) {  // pattern family of getPatternIndexes()'s instance
+        return INSTANCE_PATTERNS[instance];
+    }
+
+    public static int getMobility(long player, long opponent) {  // player's legal moves minus opponent's
+        return Long.bitCount(BitBoard.legalMoves(player, opponent)) - Long.bitCount(BitBoard.legalMoves(opponent,
+                player));
+    }
+
+    public static int getFrontier(long player, long opponent) {
+        // player's pieces next to an empty square minus opponent's
+        long frontier = BitBoard.neighbourhood(~(player | opponent));
+        return Long.bitCount(player & frontier) - Long.bitCount(opponent & frontier);
+    }
+
+    @Override
+    public int evaluate(long player, long opponent) {
+        /* pattern weights, then mobility, frontier and piece terms. for fitting weights, this is the sum of the
+        weights at getPatternWeightIndex(stage, getInstancePattern(i), indexes[i]) for getPatternIndexes()'s
+        indexes, plus each stage weight times its term, before clamping */
+        int stage = getStage(Long.bitCount(~(player | opponent)));
+        int score = evaluatePatterns(player, opponent, stage * STAGE_SIZE);
+        score += mobilityWeights[stage] * getMobility(player, opponent);
+        score += frontierWeights[stage] * getFrontier(player, opponent);
+        score += pieceWeights[stage] * (Long.bitCount(player) - Long.bitCount(opponent));
+        return Math.max(-MAX_SCORE, Math.min(MAX_SCORE, score));
+    }
+
+    public static void getPatternIndexes(long player, long opponent, int[] indexes) {
+        /* base 3 index of each of the PATTERN_INSTANCES pattern instances into indexes, in same order
+        evaluatePatterns adds up their weights */
+        int instance = 0;
+        long transposedPlayer = BitBoard.transform(player, 4);
+        long transposedOpponent = BitBoard.transform(opponent, 4);
+        for (int orientation = 0; orientation < BitBoard.SYMMETRIES; orientation++) {
+            boolean transposed = orientation >= 4;
+            long orientedPlayer = BitBoard.transform(transposed ? transposedPlayer : player, orientation & 3);
+            long orientedOpponent = BitBoard.transform(transposed ? transposedOpponent : opponent, orientation & 3);
+            indexes[instance++] = corner2x5Index(orientedPlayer, orientedOpponent);
+            if (!transposed) {
+                indexes[instance++] = corner3x3Index(orientedPlayer, orientedOpponent);
+            }
+            if ((orientation & 2) == 0) {
+                indexes[instance++] = rowIndex(orientedPlayer, orientedOpponent, 0, 0xff);
+            }
+        }
+        instance = diagonalIndexes(player, opponent, indexes, instance);
+        diagonalIndexes(BitBoard.transform(player, 2), BitBoard.transform(opponent, 2), indexes, instance);
+    }
+
+    private static int diagonalIndexes(long player, long opponent, int[] indexes, int instance) {
+        // down-right diagonals in order diagonalWeights adds them, returns next instance
+        indexes[instance++] = diagonalIndex(player, opponent, DIAGONAL_MASKS[8], 0);
+        for (int length = 4; length < BitBoard.BOARD_SIZE; length++) {
+            long belowMask = DIAGONAL_MASKS[length];
+            indexes[instance++] = diagonalIndex(player, opponent, belowMask, 0);
+            indexes[instance++] = diagonalIndex(player, opponent, BitBoard.transform(belowMask, 4),
+                    BitBoard.BOARD_SIZE - length);
+        }
+        return instance;
+    }
+
+    private int evaluatePatterns(long player, long opponent, int stageOffset) {
+        /* add up weights of every pattern instance. orientation 0-3 put each corner at top left, 4-7 are the same
+        with rows and columns swapped, so 2x5 regions come from all 8, 3x3 corners from first 4, edges from top row
+        of orientations 0, 1, 4, 5 (top, bottom, left, right) */
+        int score = 0;
+        long transposedPlayer = BitBoard.transform(player, 4);
+        long transposedOpponent = BitBoard.transform(opponent, 4);
+        for (int orientation = 0; orientation < BitBoard.SYMMETRIES; orientation++) {
+            boolean transposed = orientation >= 4;
+            long orientedPlayer = BitBoard.transform(transposed ? transposedPlayer : player, orientation & 3);
+            long orientedOpponent = BitBoard.transform(transposed ? transposedOpponent : opponent, orientation & 3);
+            score += weights[stageOffset + PATTERN_OFFSETS[CORNER_2X5] + corner2x5Index(orientedPlayer,
+                    orientedOpponent)];
+            if (!transposed) {
+                score += weights[stageOffset + PATTERN_OFFSETS[CORNER_3X3] + corner3x3Index(orientedPlayer,
+                        orientedOpponent)];
+            }
+            if ((orientation & 2) == 0) {
+                score += weights[stageOffset + PATTERN_OFFSETS[EDGE] + rowIndex(orientedPlayer, orientedOpponent, 0,
+                        0xff)];
+            }
+        }
+        // diagonals going down-right, then same on mirrored board for diagonals going down-left
+        score += diagonalWeights(player, opponent, stageOffset);
+        score += diagonalWeights(BitBoard.transform(player, 2), BitBoard.transform(opponent, 2), stageOffset);
+        return score;
+    }
+
+    private static int corner2x5Index(long player, long opponent) {
+        return rowIndex(player, opponent, 0, 0x1f) + 243 * rowIndex(player, opponent, 1, 0x1f);
+    }
+
+    private static int corner3x3Index(long player, long opponent) {
+        return rowIndex(player, opponent, 0, 7) + 27 * rowIndex(player, opponent, 1, 7)
+                + 729 * rowIndex(player, opponent, 2, 7);
+    }
+
+    private static int rowIndex(long player, long opponent, int row, int columnMask) {
+        // base 3 index of row's columns in mask, column 0 lowest digit
+        int shift = row * BitBoard.BOARD_SIZE;
+        return BASE3[(int) (player >>> shift) & columnMask] + 2 * BASE3[(int) (opponent >>> shift) & columnMask];
+    }
+
+    private int diagonalWeights(long player, long opponent, int stageOffset) {
+        /* weights of down-right diagonals of length 4 to 8. a diagonal has one square per column, so multiplying
+        gathers its pieces into top byte by column. diagonals above main one are below ones with rows and columns
+        swapped, shifted so they start at bit 0 too, so both share a table */
+        int score = weights[stageOffset + PATTERN_OFFSETS[DIAGONAL_8] + diagonalIndex(player, opponent,
+                DIAGONAL_MASKS[8], 0)];
+        for (int length = 4; length < BitBoard.BOARD_SIZE; length++) {
+            int patternOffset = stageOffset + PATTERN_OFFSETS[DIAGONAL_8 + BitBoard.BOARD_SIZE - length];
+            long belowMask = DIAGONAL_MASKS[length];
+            long aboveMask = BitBoard.transform(belowMask, 4);
+            score += weights[patternOffset + diagonalIndex(player, opponent, belowMask, 0)];
+            score += weights[patternOffset + diagonalIndex(player, opponent, aboveMask, BitBoard.BOARD_SIZE - length)];
+        }
+        return score;
+    }
+
+    private static int diagonalIndex(long player, long opponent, long mask, int shift) {
+        int playerBits = (int) (((player & mask) * DIAGONAL_GATHER) >>> (56 + shift));
+        int opponentBits = (int) (((opponent & mask) * DIAGONAL_GATHER) >>> (56 + shift));
+        return BASE3[playerBits] + 2 * BASE3[opponentBits];
+    }
+
+    private static PatternEvaluator createHandMade() {
+        /* default weights from classic square weights: owning a corner is worth a lot, X and C squares next to an
+        empty corner are bad, pieces along an edge anchored at a corner are stable. same pattern weights in every
+        stage, mobility matters most early and piece count late */
+        short[] weights = new short[STAGES * STAGE_SIZE];
+        for (int pattern = 0; pattern < PATTERNS; pattern++) {
+            int[] squares = PATTERN_SQUARES[pattern];
+            int[] cells = new int[squares.length];  // 1 player, -1 opponent, 0 empty
+            for (int patternIndex = 0; patternIndex < power3(squares.length); patternIndex++) {
+                for (int digit = 0, rest = patternIndex; digit < squares.length; digit++, rest /= 3) {
+                    cells[digit] = rest % 3 == 2 ? -1 : rest % 3;
+                }
+                int weight = handMadeWeight(pattern, squares, cells);
+                for (int stage = 0; stage < STAGES; stage++) {
+                    weights[getPatternWeightIndex(stage, pattern, patternIndex)] = (short) weight;
+                }
+            }
+        }
+        return new PatternEvaluator(weights, DEFAULT_MOBILITY_WEIGHTS.clone(), DEFAULT_FRONTIER_WEIGHTS.clone(),
+                DEFAULT_PIECE_WEIGHTS.clone());
+    }
+
+    private static int handMadeWeight(int pattern, int[] squares, int[] cells) {
+        // squares overlap between patterns, so each kind of knowledge is put in only one pattern
+        int weight = 0;
+        if (pattern == CORNER_3X3) {  // corners, and X and C squares which stop mattering once corner is taken
+            boolean cornerTaken = cells[0] != 0;
+            for (int digit = 0; digit < cells.length; digit++) {
+                boolean nextToCorner = digit == 1 || digit == 3 || digit == 4;
+                if (!(nextToCorner && cornerTaken)) {
+                    weight += cells[digit] * SQUARE_WEIGHTS[squares[digit]];
+                }
+            }
+        } else if (pattern == EDGE) {  // edge squares between C squares, and stable pieces
+            for (int digit = 2; digit < 6; digit++) {
+                weight += cells[digit] * SQUARE_WEIGHTS[squares[digit]];
+            }
+            weight += STABLE_EDGE_WEIGHT * stableEdgePieces(cells);
+        } else {  // 2x5 regions and diagonals, everything except squares 3x3 corners already cover
+            for (int digit = 0; digit < cells.length; digit++) {
+                if (Math.abs(SQUARE_WEIGHTS[squares[digit]]) < 20) {
+                    weight += cells[digit] * SQUARE_WEIGHTS[squares[digit]];
+                }
+            }
+            weight /= 2;
+        }
+        return weight;
+    }
+
+    private static int stableEdgePieces(int[] cells) {
+        /* player's pieces minus opponent's that can't be flipped along edge: all of a full edge, otherwise runs of
+        one color starting from a taken corner */
+        int stable = 0;
+        boolean full = true;
+        for (int cell : cells) {
+            full &= cell != 0;
+            stable += cell;
+        }
+        if (full) {
+            return stable;
+        }
+        stable = 0;
+        for (int digit = 0; digit < cells.length && cells[digit] == cells[0] && cells[0] != 0; digit++) {
+            stable += cells[digit];
+        }
+        int last = cells.length - 1;
+        for (int digit = last; digit >= 0 && cells[digit] == cells[last] && cells[last] != 0; digit--) {
+            stable += cells[digit];
+        }
+        return stable;
+    }
+}
@@ -0,0 +1,228 @@
+// October 18, 2026
+
+// perft: counts every line of play exactly N plies long from a position, the standard check that move generation and
+// flipping are right (counts from the starting position are known, and are checked here) and a measure of their
+// speed. a player with no legal move passes, which counts as a ply, and a game that ends before N plies counts as one
+// line. subtrees a few plies down are counted in parallel, and with a hash table positions reached by different move
+// orders are only counted once per depth.
+// usage: java Perft [--depth N] [--threads N] [--hash-megabytes N] [--board] [position]
+// counts each depth from 1 to N (default 11) from starting position, or from position in GamePosition's text form
+// (e.g. ---------------------------ox------xo--------------------------- x). --board plays moves through
+// OthelloBoard's makeMove/unmakeMove instead of straight on bitboards, to check the game's own move code
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class Perft {
+    // known counts from starting position by depth (index 0 is the position itself), package private for PerftTest
+    static final long[] STARTING_COUNTS = {1, 4, 12, 56, 244, 1396, 8200, 55092, 390216, 3005288,
+            24571284, 212258800, 1939886636, 18429641748L};
+    private static final int TASKS_PER_THREAD = 16;  // subtrees to split into, so threads finish close together
+    private static final int MIN_HASH_DEPTH = 3;  // shallower subtrees are quicker to count than to look up
+    private static final long DEPTH_KEY = 0x9e3779b97f4a7c15L;  // times depth, xor into hash so depths differ
+
+    private final int threads;
+    private final boolean useBoard;
+    private final long[] hashKeys;  // hash xor count, so a torn write never matches (like TranspositionTable)
+    private final long[] hashCounts;
+
+    public Perft(int threads, int hashMegabytes, boolean useBoard) {
+        // hashMegabytes 0 for no hash table
+        this.threads = threads;
+        this.useBoard = useBoard;
+        int entries = hashMegabytes == 0 ? 0 :
+                (int) Math.min(1 << 30, Long.highestOneBit((long) hashMegabytes * 1024 * 1024 / (2 * Long.BYTES)));
+        hashKeys = entries == 0 ? null : new long[entries];
+        hashCounts = entries == 0 ? null : new long[entries];
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int maxDepth = 11;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashMegabytes = 0;
+        boolean useBoard = false;
+        List<String> positionText = new ArrayList<>();
+        for (int argIndex = 0; argIndex < args.length; argIndex++) {
+            switch (args[argIndex]) {
+                case "--depth" -> maxDepth = Integer.parseInt(args[++argIndex]);
+                case "--threads" -> threads = Integer.parseInt(args[++argIndex]);
+                case "--hash-megabytes" -> hashMegabytes = Integer.parseInt(args[++argIndex]);
+                case "--board" -> useBoard = true;
+                default -> positionText.add(args[argIndex]);
+            }
+        }
+        GamePosition start;
+        try {
+            start = positionText.isEmpty() ? new GamePosition(BitBoard.STARTING_FIRST_PLAYER_PIECES,
+                    BitBoard.STARTING_SECOND_PLAYER_PIECES, true) : GamePosition.parse(String.join(" ", positionText));
+        } catch (IllegalArgumentException e) {
+            System.out.println("usage: java Perft [--depth N] [--threads N] [--hash-megabytes N] [--board] [position]");
+            System.out.println(e.getMessage());
+            return;
+        }
+        boolean fromStart = start.getFirstPlayerPieces() == BitBoard.STARTING_FIRST_PLAYER_PIECES
+                && start.getSecondPlayerPieces() == BitBoard.STARTING_SECOND_PLAYER_PIECES
+                && start.isFirstPlayerToMove();
+
+        Perft perft = new Perft(threads, hashMegabytes, useBoard);
+        System.out.println(start);
+        boolean allCorrect = true;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            long startTime = System.nanoTime();
+            long count = perft.count(start, depth);
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+            String check = "";
+            if (fromStart && depth < STARTING_COUNTS.length) {
+                boolean correct = count == STARTING_COUNTS[depth];
+                allCorrect &= correct;
+                check = correct ? "  ok" : String.format("  WRONG, expected %,d", STARTING_COUNTS[depth]);
+            }
+            System.out.printf("perft %2d: %,18d  %8.2f sec  %,15.0f lines/sec%s%n", depth, count, seconds,
+                    count / seconds, check);
+        }
+        if (!allCorrect) {
+            System.exit(1);
+        }
+    }
+
+    public long count(GamePosition position, int depth) throws InterruptedException, ExecutionException {
+        /* lines of play depth plies long from position. splits tree into subtrees a few plies down and counts
+        them on threads, unless there's only one thread */
+        if (threads == 1) {
+            return countSubtree(position, depth);
+        }
+        List<GamePosition> subtrees = new ArrayList<>(List.of(position));
+        long finishedGames = 0;  // games that ended before subtrees' ply, one line each
+        int subtreeDepth = depth;
+        while (subtrees.size() < threads * TASKS_PER_THREAD && subtreeDepth > MIN_HASH_DEPTH) {
+            List<GamePosition> children = new ArrayList<>();
+            for (GamePosition subtree : subtrees) {
+                long player = subtree.getPlayerPieces();
+                long moves = BitBoard.legalMoves(player, subtree.getOpponentPieces());
+                if (moves != 0) {
+                    for (; moves != 0; moves &= moves - 1) {
+                        children.add(subtree.play(Long.numberOfTrailingZeros(moves)));
+                    }
+                } else if (BitBoard.legalMoves(subtree.getOpponentPieces(), player) != 0) {
+                    children.add(subtree.play(-1));
+                } else {
+                    finishedGames++;
+                }
+            }
+            subtrees = children;
+            subtreeDepth--;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> counts = new ArrayList<>(subtrees.size());
+            for (GamePosition subtree : subtrees) {
+                int remainingDepth = subtreeDepth;
+                counts.add(executor.submit(() -> countSubtree(subtree, remainingDepth)));
+            }
+            long count = finishedGames;
+            for (Future<Long> subtreeCount : counts) {
+                count += subtreeCount.get();
+            }
+            return count;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long countSubtree(GamePosition position, int depth) {
+        // runs on one thread
+        if (!useBoard) {
+            return count(position.getPlayerPieces(), position.getOpponentPieces(), depth);
+        }
+        OthelloBoard board = new OthelloBoard(position, GameDifficulty.EASY);
+        return count(board, position.isFirstPlayerToMove() ? Player.USER : Player.PROGRAM, depth);
+    }
+
+    private long count(long player, long opponent, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        long moves = BitBoard.legalMoves(player, opponent);
+        if (moves == 0) {
+            if (BitBoard.legalMoves(opponent, player) == 0) {
+                return 1;  // game over
+            }
+            return count(opponent, player, depth - 1);  // pass
+        }
+        if (depth == 1) {
+            return Long.bitCount(moves);
+        }
+        long hash = 0;
+        if (hashKeys != null && depth >= MIN_HASH_DEPTH) {
+            hash = Zobrist.hash(player, opponent, Zobrist.FIRST_COLOR) ^ depth * DEPTH_KEY;
+            long stored = probe(hash);
+            if (stored >= 0) {
+                return stored;
+            }
+        }
+        long count = 0;
+        for (; moves != 0; moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            long flipped = BitBoard.flips(player, opponent, square);
+            count += count(opponent & ~flipped, player | flipped | (1L << square), depth - 1);
+        }
+        if (hashKeys != null && depth >= MIN_HASH_DEPTH) {
+            store(hash, count);
+        }
+        return count;
+    }
+
+    private long count(OthelloBoard board, Player player, int depth) {
+        // same as bitboard count, through board's make/unmake (a pass is an illegal move there, which changes nothing)
+        if (depth == 0) {
+            return 1;
+        }
+        Player opponent = player == Player.USER ? Player.PROGRAM : Player.USER;
+        String symbol = player == Player.USER ? board.getUSER_SYMBOL() : board.getPROGRAM_SYMBOL();
+        long moves = board.getLegalMoves(player);
+        if (moves == 0) {
+            return board.isSomeLegalMoveLeft(opponent) ? count(board, opponent, depth - 1) : 1;
+        }
+        if (depth == 1) {
+            return Long.bitCount(moves);
+        }
+        long hash = 0;
+        if (hashKeys != null && depth >= MIN_HASH_DEPTH) {
+            hash = Zobrist.hash(board.getPieces(player), board.getPieces(opponent), Zobrist.FIRST_COLOR)
+                    ^ depth * DEPTH_KEY;
+            long stored = probe(hash);
+            if (stored >= 0) {
+                return stored;
+            }
+        }
+        long count = 0;
+        for (; moves != 0; moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            if (board.makeMove(square / 8, square % 8, symbol) == 0) {
+                throw new IllegalStateException("legal move " + BitBoard.squareName(square) + " flipped nothing");
+            }
+            count += count(board, opponent, depth - 1);
+            board.unmakeMove();
+        }
+        if (hashKeys != null && depth >= MIN_HASH_DEPTH) {
+            store(hash, count);
+        }
+        return count;
+    }
+
+    private long probe(long hash) {  // stored count, -1 if position isn't stored at this depth
+        int index = (int) hash & (hashKeys.length - 1);
+        long count = hashCounts[index];
+        return (hashKeys[index] ^ count) == hash && count != 0 ? count : -1;  // every subtree has a line
+    }
+
+    private void store(long hash, long count) {  // always replaces
+        int index = (int) hash & (hashKeys.length - 1);
+        hashCounts[index] = count;
+        hashKeys[index] = hash ^ count;
+    }
+}
@@ -0,0 +1,187 @@
+// October 18, 2026
+
+// searches on opponent's time. while opponent thinks, a background thread guesses opponent's likely moves and searches
+// player's reply to each one in turn with player's own engine. once opponent moves, pondering is stopped and if
+// opponent played a guessed move whose reply finished searching, that reply is played without searching again. even
+// on a miss the engine's transposition table is warm from pondering. keeps count of hits for the hit rate
+
+public class Ponderer {
+    private static final int NO_MOVE = -1;
+
+    private final SearchEngine engine;
+    private Thread thread;  // running or finished ponder thread for current position, null if none started
+    private volatile boolean cancelled;  // set by stop(), ponder thread checks it between searches
+    private long ponderedOpponent;  // position pondered, opponent to move
+    private long ponderedPlayer;
+    private int ponderedDepth;
+
+    // replies found so far for current position, written by ponder thread and read after it's joined
+    private final long[] replyPlayers = new long[BitBoard.SQUARES];  // position after opponent's move
+    private final long[] replyOpponents = new long[BitBoard.SQUARES];
+    private final SearchStatistics[] replyStatistics = new SearchStatistics[BitBoard.SQUARES];
+    private int replyCount;
+    private boolean resultsPending;  // a position was pondered and findMove hasn't been asked about it yet
+    private SearchStatistics lastHitStatistics;
+
+    private int hits;  // opponent's move was one whose reply was searched
+    private int misses;
+
+    public Ponderer(SearchEngine engine) {  // engine must not be used by anyone else while pondering
+        this.engine = engine;
+    }
+
+    public void start(long opponentToMove, long player, int playerColor, int searchDepth) {
+        // overloaded method, replies are searched without time or node limits
+        start(opponentToMove, player, playerColor, searchDepth, 0, 0);
+    }
+
+    public synchronized void start(long opponentToMove, long player, int playerColor, int searchDepth,
+                                   long timeLimitMillis, long nodeLimit) {
+        /* start pondering position with opponent to move, searching player's replies (player's Zobrist color is
+        playerColor) to searchDepth, each within time and node limits (0 for none) like player's own move would be.
+        does nothing if already pondering same position */
+        if (thread != null && ponderedOpponent == opponentToMove && ponderedPlayer == player
+                && ponderedDepth == searchDepth) {
+            return;
+        }
+        stop();
+        ponderedOpponent = opponentToMove;
+        ponderedPlayer = player;
+        ponderedDepth = searchDepth;
+        replyCount = 0;
+        resultsPending = false;
+        if (BitBoard.legalMoves(opponentToMove, player) == 0) {
+            return;  // opponent has to pass, player moves again straight away so there's nothing to ponder
+        }
+        resultsPending = true;
+        cancelled = false;
+        thread = new Thread(() -> ponder(opponentToMove, player, playerColor, searchDepth, timeLimitMillis,
+                nodeLimit), "ponder");
+        thread.setDaemon(true);  // never keep JVM alive for a game nobody is playing
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        // cancel pondering and wait for thread to finish its search (stopped at its next node check)
+        if (thread == null) {
+            return;
+        }
+        cancelled = true;
+        engine.requestStop();
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;  // have to wait anyway, engine can't be shared with ponder thread
+            }
+        }
+        engine.clearStopRequest();
+        thread = null;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public synchronized void clear() {  // stop pondering and forget replies found, e.g. if player moved from book
+        stop();
+        resultsPending = false;
+        replyCount = 0;
+    }
+
+    public synchronized int findMove(long player, long opponent, int searchDepth) {
+        /* stop pondering and return pondered reply (square) for player in position, or -1 on a miss. counts a hit or
+        miss the first time it's called after pondering a position */
+        stop();
+        if (!resultsPending) {
+            return NO_MOVE;
+        }
+        resultsPending = false;
+        for (int replyIndex = 0; replyIndex < replyCount; replyIndex++) {
+            if (replyPlayers[replyIndex] == player && replyOpponents[replyIndex] == opponent
+                    && ponderedDepth == searchDepth) {
+                hits++;
+                lastHitStatistics = replyStatistics[replyIndex];
+                replyCount = 0;
+                return lastHitStatistics.getMove();
+            }
+        }
+        misses++;
+        replyCount = 0;
+        return NO_MOVE;
+    }
+
+    public synchronized SearchStatistics getLastHitStatistics() {  // pondered search of move last returned by findMove
+        return lastHitStatistics;
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    public synchronized double getHitRate() {  // fraction of opponent's moves that were pondered, 0 if none yet
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    private void ponder(long opponent, long player, int playerColor, int searchDepth, long timeLimitMillis,
+                        long nodeLimit) {
+        // runs on ponder thread, searches player's reply to each of opponent's moves, most likely first
+        int[] opponentMoves = new int[BitBoard.SQUARES];
+        int moveCount = predictMoves(opponent, player, 1 - playerColor, searchDepth, timeLimitMillis, nodeLimit,
+                opponentMoves);
+        for (int moveIndex = 0; moveIndex < moveCount && !cancelled; moveIndex++) {
+            int move = opponentMoves[moveIndex];
+            long flipped = BitBoard.flips(opponent, player, move);
+            long newOpponent = opponent | flipped | (1L << move);
+            long newPlayer = player & ~flipped;
+            if (BitBoard.legalMoves(newPlayer, newOpponent) == 0) {
+                continue;  // player would have to pass
+            }
+            engine.findBestMove(newPlayer, newOpponent, playerColor, searchDepth, timeLimitMillis, nodeLimit);
+            if (cancelled) {  // search may have been cut short, its move can't be trusted
+                return;
+            }
+            replyPlayers[replyCount] = newPlayer;
+            replyOpponents[replyCount] = newOpponent;
+            replyStatistics[replyCount] = engine.getLastStatistics();
+            replyCount++;
+        }
+    }
+
+    private int predictMoves(long opponent, long player, int opponentColor, int searchDepth, long timeLimitMillis,
+                             long nodeLimit, int[] moves) {
+        /* write opponent's legal moves into moves, most likely first, and return how many. a half depth search (with
+        half of any budget) picks opponent's best move, rest are sorted by player's evaluation after them, lowest
+        (best for opponent) first */
+        int predictedMove = engine.findBestMove(opponent, player, opponentColor, Math.max(1, searchDepth / 2),
+                (timeLimitMillis + 1) / 2, (nodeLimit + 1) / 2);
+        if (cancelled) {
+            return 0;
+        }
+        Evaluator evaluator = engine.getEvaluator();
+        int[] scores = new int[BitBoard.SQUARES];
+        int moveCount = 0;
+        long legalMoves = BitBoard.legalMoves(opponent, player);
+        while (legalMoves != 0) {
+            int move = Long.numberOfTrailingZeros(legalMoves);
+            legalMoves &= legalMoves - 1;
+            long flipped = BitBoard.flips(opponent, player, move);
+            int score = move == predictedMove ? Integer.MIN_VALUE :
+                    evaluator.evaluate(player & ~flipped, opponent | flipped | (1L << move));
+            int insertAt = moveCount;  // insertion sort, lowest score first
+            while (insertAt > 0 && scores[insertAt - 1] > score) {
+                moves[insertAt] = moves[insertAt - 1];
+                scores[insertAt] = scores[insertAt - 1];
+                insertAt--;
+            }
+            moves[insertAt] = move;
+            scores[insertAt] = score;
+            moveCount++;
+        }
+        return moveCount;
+    }
+}
@@ -0,0 +1,673 @@
+// October 18, 2026
+
+// negamax alpha-beta search (principal variation search) on bitboards, used to pick the program's moves.
+// can search with several threads at once (lazy SMP), all sharing one transposition table
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+public class SearchEngine implements AutoCloseable {
+    public static final int MAX_DEPTH = BitBoard.SQUARES - 4;  // deeper than this always reaches end of game
+    private static final int MAX_PLY = 128;  // depth + passes, a game can't go deeper than this
+    private static final int MAX_MOVES = 32;  // more legal moves than this can't happen in one position
+    private static final int INFINITY = 1_000_000;
+    public static final int WIN_SCORE = 100_000;  // score of a won game is this plus final piece difference
+    private static final long CORNERS = 0x8100000000000081L;
+    private static final int NO_MOVE = -1;
+    private static final int DEFAULT_TABLE_MEGABYTES = 16;
+    private static final int DEFAULT_THREADS = 1;
+    private static final int DEFAULT_ENDGAME_EMPTIES = EndgameSolver.DEFAULT_MAX_EMPTIES;
+    private static final int NODES_BETWEEN_TIME_CHECKS = 4096;  // power of two, checked with a mask
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+    private static final long NO_NODE_LIMIT = Long.MAX_VALUE;
+
+    // move ordering bonuses. corners first, then previous best move (from table or last iteration), then killer moves
+    private static final int CORNER_ORDER_SCORE = 4000;
+    private static final int PREVIOUS_BEST_ORDER_SCORE = 2000;
+    private static final int FIRST_KILLER_ORDER_SCORE = 1000;
+    private static final int SECOND_KILLER_ORDER_SCORE = 900;
+
+    private final TranspositionTable transpositionTable;  // kept between searches, positions repeat move to move
+    private final Evaluator evaluator;  // scores positions at end of search depth, shared by all workers
+    private final SearchWorker[] workers;  // worker 0 runs on calling thread, rest are helpers
+    private ExecutorService helperThreads;  // created on first search that uses more than one thread
+    private volatile boolean stopped;  // set when main worker is done or out of time, workers abandon their search
+    private volatile boolean stopRequested;  // set from another thread, stays set until clearStopRequest()
+    private volatile boolean finishRequested;  // same, but search still returns deepest finished iteration's move
+    private int endgameEmpties = DEFAULT_ENDGAME_EMPTIES;  // solve exactly at this many empty squares or fewer
+    private volatile EndgameSolver endgameSolver;  // created on first position solved
+
+    private SearchStatistics lastStatistics = new SearchStatistics(SearchStatistics.Source.SEARCH, NO_MOVE, 0, 0, 0,
+            0, 0, 0, 0, 0, 0);  // how last move was found, nothing until first search
+
+    public SearchEngine() {
+        /* engine with default transposition table size, thread count, endgame threshold and evaluator, can be set
+        with -Dothello.hashMegabytes, -Dothello.threads, -Dothello.endgameEmpties and -Dothello.evaluator */
+        this(Integer.getInteger("othello.hashMegabytes", DEFAULT_TABLE_MEGABYTES),
+                Integer.getInteger("othello.threads", DEFAULT_THREADS));
+        endgameEmpties = Integer.getInteger("othello.endgameEmpties", DEFAULT_ENDGAME_EMPTIES);
+    }
+
+    public SearchEngine(int transpositionTableMegabytes) {  // single threaded engine with table of given size in MB
+        this(transpositionTableMegabytes, 1);
+    }
+
+    public SearchEngine(int transpositionTableMegabytes, int threads) {  // engine with default evaluator
+        this(transpositionTableMegabytes, threads, Evaluator.getDefault());
+    }
+
+    public SearchEngine(int transpositionTableMegabytes, int threads, Evaluator evaluator) {
+        transpositionTable = new TranspositionTable(transpositionTableMegabytes);
+        this.evaluator = evaluator;
+        workers = new SearchWorker[Math.max(1, threads)];
+        for (int workerIndex = 0; workerIndex < workers.length; workerIndex++) {
+            workers[workerIndex] = new SearchWorker(workerIndex);
+        }
+    }
+
+    public TranspositionTable getTranspositionTable() {  // for hit rate and fill ratio
+        return transpositionTable;
+    }
+
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    public int getThreads() {
+        return workers.length;
+    }
+
+    public int getEndgameEmpties() {
+        return endgameEmpties;
+    }
+
+    public void setEndgameEmpties(int endgameEmpties) {  // 0 to never use endgame solver
+        this.endgameEmpties = endgameEmpties;
+    }
+
+    public int findBestMove(long player, long opponent, int maxDepth) {
+        // overloaded method, treats player to move as first color
+        return findBestMove(player, opponent, Zobrist.FIRST_COLOR, maxDepth);
+    }
+
+    public int findBestMove(long player, long opponent, int playerColor, int maxDepth) {
+        // overloaded method, searches without a time limit
+        return findBestMove(player, opponent, playerColor, maxDepth, 0);
+    }
+
+    public int findBestMove(long player, long opponent, int playerColor, int maxDepth, long timeLimitMillis) {
+        // overloaded method, searches without a node limit
+        return findBestMove(player, opponent, playerColor, maxDepth, timeLimitMillis, 0);
+    }
+
+    public synchronized int findBestMove(long player, long opponent, int playerColor, int maxDepth,
+                                         long timeLimitMillis, long nodeLimit) {
+        /* search position with player to move, deepening one ply at a time up to maxDepth so each iteration can try
+        the previous iteration's best line first. playerColor is player's Zobrist color, used for hashing.
+        if timeLimitMillis or nodeLimit (main worker's nodes) is above 0 and runs out, search stops and returns best
+        move of deepest iteration that finished (first iteration always finishes). an iteration isn't started once
+        half the budget is gone, as it would take several times longer than the ones before and not finish.
+        endgame solver only has the time limit.
+        with more than one thread, helpers search same position at staggered depths and share what they find
+        through the transposition table. move returned is always main worker's, so with one thread and no time
+        limit result is deterministic.
+        near end of game endgame solver takes over, see isEndgame(). returns square index (row * 8 + column) of best
+        move found, or -1 if player has no legal move. how it was found is in getLastStatistics() */
+        if (BitBoard.legalMoves(player, opponent) == 0) {
+            return NO_MOVE;
+        }
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long startTime = System.nanoTime();
+        long deadline = timeLimitMillis > 0 ? startTime + timeLimitMillis * 1_000_000 : NO_DEADLINE;
+        int bestMove = NO_MOVE;
+        if (isEndgame(player, opponent, maxDepth)) {
+            bestMove = solveEndgame(player, opponent, startTime, deadline);
+            // NO_MOVE if out of time before even win/loss/draw was solved, then search (first iteration always runs)
+        }
+        if (bestMove == NO_MOVE) {
+            bestMove = searchWithWorkers(player, opponent, playerColor, maxDepth, startTime, deadline,
+                    nodeLimit > 0 ? nodeLimit : NO_NODE_LIMIT);
+        }
+        event.commit(lastStatistics);
+        return bestMove;
+    }
+
+    private int searchWithWorkers(long player, long opponent, int playerColor, int maxDepth, long startTime,
+                                  long deadline, long nodeLimit) {
+        // search with every worker and record statistics, returns main worker's best move
+        long hash = playerColor == Zobrist.FIRST_COLOR ?
+                Zobrist.hash(player, opponent, playerColor) : Zobrist.hash(opponent, player, playerColor);
+        transpositionTable.newSearch();
+        stopped = false;
+        int searchDepth = Math.max(1, Math.min(MAX_DEPTH, maxDepth));
+
+        List<Future<?>> helperSearches = new ArrayList<>();
+        for (int workerIndex = 1; workerIndex < workers.length; workerIndex++) {
+            SearchWorker helper = workers[workerIndex];
+            helperSearches.add(getHelperThreads().submit(() -> helper.iterativeDeepening(player, opponent, hash,
+                    playerColor, searchDepth + 1)));  // helpers go deeper so they keep feeding table till stopped
+        }
+        SearchWorker mainWorker = workers[0];
+        mainWorker.deadline = deadline;
+        mainWorker.lastIterationDeadline = deadline == NO_DEADLINE ? NO_DEADLINE :
+                startTime + (deadline - startTime) / 2;
+        mainWorker.nodeLimit = nodeLimit;
+        int bestMove = mainWorker.iterativeDeepening(player, opponent, hash, playerColor, searchDepth);
+        stopped = true;
+        waitFor(helperSearches);
+
+        long nodes = 0;
+        long leafEvaluations = 0;
+        long betaCutoffs = 0;
+        long tableProbes = 0;
+        long tableHits = 0;
+        for (SearchWorker worker : workers) {
+            nodes += worker.nodes;
+            leafEvaluations += worker.leafEvaluations;
+            betaCutoffs += worker.betaCutoffs;
+            tableProbes += worker.tableProbes;
+            tableHits += worker.tableHits;
+        }
+        lastStatistics = new SearchStatistics(SearchStatistics.Source.SEARCH, bestMove, mainWorker.completedScore,
+                mainWorker.completedDepth, workers.length, nodes, leafEvaluations, betaCutoffs, tableProbes, tableHits,
+                System.nanoTime() - startTime);
+        return bestMove;
+    }
+
+    public synchronized List<MoveAnalysis> analyzeMoves(long player, long opponent, int playerColor, int maxDepth,
+                                                        long timeLimitMillis, Consumer<List<MoveAnalysis>> listener) {
+        /* score every legal move of player to move, with the line expected after it, best first. one search on
+        calling thread deepens a ply at a time like findBestMove, but searches each move at root with a full window
+        so every score is exact, not just best move's. moves share the transposition table and each is ordered by
+        its own line from last iteration, so later moves cost far less than a search of their own.
+        after every finished iteration listener (if not null) gets the ranking so far, so a caller can show it
+        straight away and update it. stops at maxDepth (or sooner once it reaches end of game), when time limit
+        (if above 0) runs out or when stopped, returning ranking of deepest finished iteration. empty list if player
+        has no legal move */
+        if (BitBoard.legalMoves(player, opponent) == 0) {
+            return List.of();
+        }
+        long startTime = System.nanoTime();
+        long deadline = timeLimitMillis > 0 ? startTime + timeLimitMillis * 1_000_000 : NO_DEADLINE;
+        long hash = playerColor == Zobrist.FIRST_COLOR ?
+                Zobrist.hash(player, opponent, playerColor) : Zobrist.hash(opponent, player, playerColor);
+        transpositionTable.newSearch();
+        stopped = false;
+        int empties = Long.bitCount(~(player | opponent));
+        SearchWorker mainWorker = workers[0];
+        mainWorker.deadline = deadline;
+        mainWorker.lastIterationDeadline = deadline == NO_DEADLINE ? NO_DEADLINE :
+                startTime + (deadline - startTime) / 2;
+        mainWorker.nodeLimit = NO_NODE_LIMIT;
+        List<MoveAnalysis> ranking = mainWorker.analyzeMoves(player, opponent, hash, playerColor,
+                Math.max(1, Math.min(empties, maxDepth)), listener);
+        stopped = true;
+        MoveAnalysis best = ranking.get(0);
+        lastStatistics = new SearchStatistics(SearchStatistics.Source.SEARCH, best.getMove(), best.getScore(),
+                best.getDepth(), 1, mainWorker.nodes, mainWorker.leafEvaluations, mainWorker.betaCutoffs,
+                mainWorker.tableProbes, mainWorker.tableHits, System.nanoTime() - startTime);
+        return ranking;
+    }
+
+    private boolean isEndgame(long player, long opponent, int maxDepth) {
+        /* solve exactly once empty squares are at threshold, but not more than twice search depth, so easier
+        difficulties don't suddenly play a perfect endgame from far out */
+        int empties = Long.bitCount(~(player | opponent));
+        return empties <= endgameEmpties && empties <= maxDepth * 2;
+    }
+
+    private int solveEndgame(long player, long opponent, long startTime, long deadline) {
+        // solve with endgame solver and report its result like a search's, returns -1 if it ran out of time
+        if (endgameSolver == null) {
+            endgameSolver = new EndgameSolver();
+            if (stopRequested || finishRequested) {  // requestStop() may have run before solver existed
+                endgameSolver.requestStop();
+            }
+        }
+        int solvedMove = endgameSolver.solve(player, opponent, deadline);
+        if (solvedMove != NO_MOVE) {
+            int pieceDifference = endgameSolver.getLastScore();  // only its sign if solve wasn't exact
+            int score = pieceDifference == 0 ? 0 : Integer.signum(pieceDifference) * WIN_SCORE + pieceDifference;
+            lastStatistics = new SearchStatistics(SearchStatistics.Source.ENDGAME_SOLVER, solvedMove, score,
+                    endgameSolver.getLastEmpties(), 1, endgameSolver.getLastNodes(), 0, 0, 0, 0,
+                    System.nanoTime() - startTime);
+        }
+        return solvedMove;
+    }
+
+    private ExecutorService getHelperThreads() {
+        if (helperThreads == null) {
+            helperThreads = Executors.newFixedThreadPool(workers.length - 1, runnable -> {
+                Thread thread = new Thread(runnable, "search-helper");
+                thread.setDaemon(true);  // never keep JVM alive just for idle helpers
+                return thread;
+            });
+        }
+        return helperThreads;
+    }
+
+    private void waitFor(List<Future<?>> helperSearches) {
+        for (Future<?> helperSearch : helperSearches) {
+            try {
+                helperSearch.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("helper search failed", e.getCause());
+            }
+        }
+    }
+
+    public void requestStop() {
+        /* stop search running on another thread as soon as possible, like running out of time, except even first
+        iteration is abandoned (findBestMove may return -1). every search after also stops immediately until
+        clearStopRequest(), so a stop can't be missed by a search that was just about to start */
+        stopRequested = true;
+        EndgameSolver solver = endgameSolver;
+        if (solver != null) {
+            solver.requestStop();
+        }
+    }
+
+    public void requestFinish() {
+        /* finish search running on another thread as soon as possible, as if its time had run out: it returns best
+        move of deepest iteration that finished (first iteration always finishes, so there is one). like
+        requestStop() it stays in effect until clearStopRequest() */
+        finishRequested = true;
+        EndgameSolver solver = endgameSolver;
+        if (solver != null) {
+            solver.requestStop();  // gives up on solving, search then runs its first iteration and stops
+        }
+    }
+
+    public void clearStopRequest() {  // let searches run again after requestStop() or requestFinish()
+        stopRequested = false;
+        finishRequested = false;
+        EndgameSolver solver = endgameSolver;
+        if (solver != null) {
+            solver.clearStopRequest();
+        }
+    }
+
+    @Override
+    public void close() {  // stop helper threads, engine can't search with helpers after this
+        if (helperThreads != null) {
+            helperThreads.shutdownNow();
+        }
+    }
+
+    public SearchStatistics getLastStatistics() {  // how last move was found: depth, nodes, cutoffs, table hits, time
+        return lastStatistics;
+    }
+
+    public int getLastScore() {  // get score of last move found
+        return lastStatistics.getScore();
+    }
+
+    public boolean isLastMoveSolved() {  // true if last move came from endgame solver, score is then exact
+        return lastStatistics.getSource() == SearchStatistics.Source.ENDGAME_SOLVER;
+    }
+
+    public EndgameSolver getEndgameSolver() {  // for solve time and nodes, null until first position is solved
+        return endgameSolver;
+    }
+
+    public int getLastDepth() {  // get depth reached when finding last move, empty squares if it was solved
+        return lastStatistics.getDepth();
+    }
+
+    public long getLastNodes() {  // get nodes visited by all threads in last search
+        return lastStatistics.getNodes();
+    }
+
+    public double getLastNodesPerSecond() {
+        return lastStatistics.getNodesPerSecond();
+    }
+
+    private final class SearchWorker {
+        // state for one search thread. nothing in here is shared, so workers never contend except on table
+        private final int workerIndex;
+        private final int[][] moveBuffers = new int[MAX_PLY][MAX_MOVES];  // preallocated move lists for each ply
+        private final int[][] orderScoreBuffers = new int[MAX_PLY][MAX_MOVES];
+        private final int[][] killerMoves = new int[MAX_PLY][2];  // quiet moves that caused a cutoff at each ply
+        private final int[][] principalVariation = new int[MAX_PLY][MAX_PLY];  // triangular table of best lines
+        private final int[] principalVariationLength = new int[MAX_PLY];
+        private final int[] previousPrincipalVariation = new int[MAX_PLY];  // best line of last completed iteration
+        private int previousPrincipalVariationLength;
+
+        private int completedScore;  // result of deepest iteration that finished
+        private int completedDepth;
+        private long nodes;
+        private long leafEvaluations;  // these four only count when SearchStatistics.COUNTERS_ENABLED
+        private long betaCutoffs;
+        private long tableProbes;
+        private long tableHits;
+        private long deadline = NO_DEADLINE;  // System.nanoTime() to stop at, only main worker has one
+        private long lastIterationDeadline = NO_DEADLINE;  // no new iteration after this
+        private long nodeLimit = NO_NODE_LIMIT;  // stop after this many nodes, like deadline
+        private boolean deadlineActive;  // off during first iteration so there's always a move to return
+
+        private SearchWorker(int workerIndex) {
+            this.workerIndex = workerIndex;
+        }
+
+        private int iterativeDeepening(long player, long opponent, long hash, int playerColor, int maxDepth) {
+            /* search one ply deeper each iteration until maxDepth, or until stopped for helpers. odd helpers start
+            one ply deeper so helpers aren't all on same depth. returns best move of deepest completed iteration */
+            clearKillerMoves();
+            previousPrincipalVariationLength = 0;
+            nodes = 0;
+            leafEvaluations = 0;
+            betaCutoffs = 0;
+            tableProbes = 0;
+            tableHits = 0;
+            int bestMove = NO_MOVE;
+            int startDepth = workerIndex % 2 == 0 ? 1 : 2;
+            for (int depth = Math.min(startDepth, maxDepth); depth <= maxDepth; depth++) {
+                deadlineActive = bestMove != NO_MOVE;
+                if (deadlineActive && (System.nanoTime() > lastIterationDeadline || nodes > nodeLimit / 2)) {
+                    break;  // half of budget is gone, next iteration wouldn't finish
+                }
+                int score = search(player, opponent, hash, playerColor, depth, -INFINITY, INFINITY, 0);
+                if (isAbandoned()) {
+                    break;
+                }
+                completedScore = score;
+                completedDepth = depth;
+                bestMove = principalVariation[0][0];
+                previousPrincipalVariationLength = principalVariationLength[0];  // keep line to order next iteration
+                System.arraycopy(principalVariation[0], 0, previousPrincipalVariation, 0,
+                        previousPrincipalVariationLength);
+            }
+            return bestMove;
+        }
+
+        private List<MoveAnalysis> analyzeMoves(long player, long opponent, long hash, int playerColor, int maxDepth,
+                                                Consumer<List<MoveAnalysis>> listener) {
+            /* iterative deepening over every root move with a full window each, see SearchEngine.analyzeMoves.
+            root moves are searched best first by last iteration's scores */
+            clearKillerMoves();
+            previousPrincipalVariationLength = 0;
+            nodes = 0;
+            leafEvaluations = 0;
+            betaCutoffs = 0;
+            tableProbes = 0;
+            tableHits = 0;
+            List<MoveAnalysis> ranking = new ArrayList<>();  // deepest finished iteration, best first
+            long legalMoves = BitBoard.legalMoves(player, opponent);
+            while (legalMoves != 0) {  // first iteration in square order
+                int move = Long.numberOfTrailingZeros(legalMoves);
+                legalMoves &= legalMoves - 1;
+                ranking.add(new MoveAnalysis(move, 0, 0, new int[]{move}));
+            }
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                deadlineActive = depth > 1;
+                if (deadlineActive && System.nanoTime() > lastIterationDeadline) {
+                    break;  // half of budget is gone, next iteration wouldn't finish
+                }
+                List<MoveAnalysis> iteration = new ArrayList<>(ranking.size());
+                for (MoveAnalysis previous : ranking) {
+                    int move = previous.getMove();
+                    int[] previousLine = previous.getPrincipalVariation();
+                    previousPrincipalVariationLength = previousLine.length;  // order move's subtree by its own line
+                    System.arraycopy(previousLine, 0, previousPrincipalVariation, 0, previousLine.length);
+                    long flipped = BitBoard.flips(player, opponent, move);
+                    long newPlayer = player | flipped | (1L << move);
+                    long newOpponent = opponent & ~flipped;
+                    long newHash = hash ^ Zobrist.moveKey(playerColor, move, flipped);
+                    int score = -search(newOpponent, newPlayer, newHash, 1 - playerColor, depth - 1, -INFINITY,
+                            INFINITY, 1);
+                    if (isAbandoned()) {
+                        return ranking;
+                    }
+                    copyPrincipalVariation(0, move);
+                    iteration.add(new MoveAnalysis(move, score, depth, extendLine(newOpponent, newPlayer, newHash,
+                            1 - playerColor, depth)));
+                }
+                iteration.sort(Comparator.comparingInt(MoveAnalysis::getScore).reversed());  // stable, ties keep order
+                ranking = iteration;
+                completedScore = ranking.get(0).getScore();
+                completedDepth = depth;
+                if (listener != null) {
+                    listener.accept(List.copyOf(ranking));
+                }
+            }
+            return ranking;
+        }
+
+        private int[] extendLine(long player, long opponent, long hash, int playerColor, int length) {
+            /* line just searched from root (principal variation of ply 0), continued from transposition table where
+            table cut search short, up to length moves. player is to move after root move */
+            int[] line = new int[MAX_PLY];
+            int lineLength = principalVariationLength[0];
+            System.arraycopy(principalVariation[0], 0, line, 0, lineLength);
+            for (int ply = 1; ply < lineLength; ply++) {  // play out line to its end
+                int move = line[ply];
+                if (move != NO_MOVE) {
+                    long flipped = BitBoard.flips(player, opponent, move);
+                    hash ^= Zobrist.moveKey(playerColor, move, flipped);
+                    long newPlayer = player | flipped | (1L << move);
+                    player = opponent & ~flipped;
+                    opponent = newPlayer;
+                } else {
+                    hash ^= Zobrist.passKey();
+                    long swap = player;
+                    player = opponent;
+                    opponent = swap;
+                }
+                playerColor = 1 - playerColor;
+            }
+            while (lineLength < length) {
+                long legalMoves = BitBoard.legalMoves(player, opponent);
+                if (legalMoves == 0) {
+                    break;  // a pass or end of game, table has no move to follow
+                }
+                long entry = transpositionTable.probe(hash);
+                int move = entry == TranspositionTable.NO_ENTRY ? NO_MOVE : TranspositionTable.getMove(entry);
+                if (move == NO_MOVE || (legalMoves & (1L << move)) == 0) {  // none stored, or another position's
+                    break;
+                }
+                line[lineLength++] = move;
+                long flipped = BitBoard.flips(player, opponent, move);
+                hash ^= Zobrist.moveKey(playerColor, move, flipped);
+                long newPlayer = player | flipped | (1L << move);
+                player = opponent & ~flipped;
+                opponent = newPlayer;
+                playerColor = 1 - playerColor;
+            }
+            return Arrays.copyOf(line, lineLength);
+        }
+
+        private boolean isAbandoned() {
+            // helpers stop as soon as main worker is done, everyone when time is up or stop is requested
+            return stopped || stopRequested;
+        }
+
+        private void checkDeadline() {
+            /* only main worker turns time, node limit or a finish request into stopped: it alone knows whether it
+            has finished an iteration to return yet. helpers just see stopped through isAbandoned */
+            if (workerIndex == 0 && deadlineActive
+                    && (finishRequested || nodes >= nodeLimit || System.nanoTime() > deadline)) {
+                stopped = true;
+            }
+        }
+
+        private int search(long player, long opponent, long hash, int playerColor, int depth, int alpha, int beta,
+                           int ply) {
+            /* negamax with principal variation search. the first move is searched with the full window, every other
+            move with a null window to prove it isn't better, and only re-searched with the full window when it is.
+            hash is Zobrist hash of position, updated incrementally for each move.
+            returns score from point of view of player to move */
+            if ((++nodes & (NODES_BETWEEN_TIME_CHECKS - 1)) == 0) {
+                checkDeadline();
+            }
+            principalVariationLength[ply] = ply;
+            long legalMoves = BitBoard.legalMoves(player, opponent);
+            if (legalMoves == 0) {
+                if (BitBoard.legalMoves(opponent, player) == 0) {  // neither player can move, game is over
+                    return finalScore(player, opponent);
+                }
+                // player has to pass, opponent moves on same depth
+                int score = -search(opponent, player, hash ^ Zobrist.passKey(), 1 - playerColor, depth, -beta, -alpha,
+                        ply + 1);
+                copyPrincipalVariation(ply, NO_MOVE);
+                return score;
+            }
+            if (depth == 0) {
+                if (SearchStatistics.COUNTERS_ENABLED) {
+                    leafEvaluations++;
+                }
+                return evaluator.evaluate(player, opponent);
+            }
+
+            int hashMove = NO_MOVE;
+            long entry = transpositionTable.probe(hash);
+            if (SearchStatistics.COUNTERS_ENABLED) {
+                tableProbes++;
+                if (entry != TranspositionTable.NO_ENTRY) {
+                    tableHits++;
+                }
+            }
+            if (entry != TranspositionTable.NO_ENTRY) {
+                hashMove = TranspositionTable.getMove(entry);
+                if (ply > 0 && TranspositionTable.getDepth(entry) >= depth) {  // stored result is deep enough to use
+                    int storedScore = TranspositionTable.getScore(entry);
+                    int bound = TranspositionTable.getBound(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || (bound == TranspositionTable.LOWER_BOUND && storedScore >= beta)
+                            || (bound == TranspositionTable.UPPER_BOUND && storedScore <= alpha)) {
+                        return storedScore;
+                    }
+                }
+            }
+
+            int originalAlpha = alpha;
+            int[] moves = moveBuffers[ply];
+            int moveCount = orderMoves(legalMoves, ply, hashMove, moves, orderScoreBuffers[ply]);
+            int bestScore = -INFINITY;
+            int bestMove = NO_MOVE;
+            for (int moveIndex = 0; moveIndex < moveCount; moveIndex++) {
+                int move = moves[moveIndex];
+                long flipped = BitBoard.flips(player, opponent, move);
+                long newPlayer = player | flipped | (1L << move);
+                long newOpponent = opponent & ~flipped;
+                long newHash = hash ^ Zobrist.moveKey(playerColor, move, flipped);
+                int score;
+                if (moveIndex == 0) {  // principal variation move, full window
+                    score = -search(newOpponent, newPlayer, newHash, 1 - playerColor, depth - 1, -beta, -alpha,
+                            ply + 1);
+                } else {
+                    score = -search(newOpponent, newPlayer, newHash, 1 - playerColor, depth - 1, -alpha - 1, -alpha,
+                            ply + 1);
+                    if (score > alpha && score < beta) {  // null window failed high, so re-search to get exact score
+                        score = -search(newOpponent, newPlayer, newHash, 1 - playerColor, depth - 1, -beta, -alpha,
+                                ply + 1);
+                    }
+                }
+                if (isAbandoned()) {  // scores below here are meaningless, don't let them reach table
+                    return 0;
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = move;
+                    copyPrincipalVariation(ply, move);
+                    if (score > alpha) {
+                        alpha = score;
+                        if (alpha >= beta) {  // opponent won't allow this line, cut off remaining moves
+                            if (SearchStatistics.COUNTERS_ENABLED) {
+                                betaCutoffs++;
+                            }
+                            storeKillerMove(ply, move);
+                            break;
+                        }
+                    }
+                }
+            }
+            int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND :
+                    bestScore >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+            transpositionTable.store(hash, depth, bestScore, bound, bestMove);
+            return bestScore;
+        }
+
+        private int orderMoves(long legalMoves, int ply, int hashMove, int[] moves, int[] orderScores) {
+            /* write legal moves into buffer for this ply, sorted so moves most likely to be best are searched first.
+            previous best move is move stored in transposition table, or last iteration's best line if there's none.
+            returns number of moves */
+            int previousBestMove = hashMove;
+            if (previousBestMove == NO_MOVE && ply < previousPrincipalVariationLength) {
+                previousBestMove = previousPrincipalVariation[ply];
+            }
+            int moveCount = 0;
+            while (legalMoves != 0) {
+                int move = Long.numberOfTrailingZeros(legalMoves);
+                legalMoves &= legalMoves - 1;
+                int orderScore = 0;
+                if ((CORNERS & (1L << move)) != 0) {
+                    orderScore += CORNER_ORDER_SCORE;
+                }
+                if (move == previousBestMove) {
+                    orderScore += PREVIOUS_BEST_ORDER_SCORE;
+                } else if (move == killerMoves[ply][0]) {
+                    orderScore += FIRST_KILLER_ORDER_SCORE;
+                } else if (move == killerMoves[ply][1]) {
+                    orderScore += SECOND_KILLER_ORDER_SCORE;
+                }
+                // insertion sort by order score, highest first. move lists are short so this is cheapest
+                int insertAt = moveCount;
+                while (insertAt > 0 && orderScores[insertAt - 1] < orderScore) {
+                    moves[insertAt] = moves[insertAt - 1];
+                    orderScores[insertAt] = orderScores[insertAt - 1];
+                    insertAt--;
+                }
+                moves[insertAt] = move;
+                orderScores[insertAt] = orderScore;
+                moveCount++;
+            }
+            return moveCount;
+        }
+
+        private void copyPrincipalVariation(int ply, int move) {
+            // best line from this ply is move followed by best line found from next ply
+            principalVariation[ply][ply] = move;
+            int childLength = principalVariationLength[ply + 1];
+            for (int nextPly = ply + 1; nextPly < childLength; nextPly++) {
+                principalVariation[ply][nextPly] = principalVariation[ply + 1][nextPly];
+            }
+            principalVariationLength[ply] = Math.max(childLength, ply + 1);
+        }
+
+        private void storeKillerMove(int ply, int move) {
+            if (killerMoves[ply][0] != move) {  // keep two most recent, don't store same move twice
+                killerMoves[ply][1] = killerMoves[ply][0];
+                killerMoves[ply][0] = move;
+            }
+        }
+
+        private void clearKillerMoves() {
+            for (int[] killers : killerMoves) {
+                killers[0] = NO_MOVE;
+                killers[1] = NO_MOVE;
+            }
+        }
+    }
+
+    private static int finalScore(long player, long opponent) {
+        // game is over, any win beats any evaluation. prefer winning by more pieces
+        int pieceDifference = Long.bitCount(player) - Long.bitCount(opponent);
+        if (pieceDifference > 0) {
+            return WIN_SCORE + pieceDifference;
+        } else if (pieceDifference < 0) {
+            return -WIN_SCORE + pieceDifference;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,75 @@
+// October 18, 2026
+
+// JDK Flight Recorder event for each move found, e.g. record with java -XX:StartFlightRecording and look for
+// othello.Search. costs next to nothing when no recording is running. moves that are only looked up (opening book,
+// ponder hit) commit an event without begin(), their time is in Move Time
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("othello.Search")
+@Label("Move Search")
+@Category("Othello")
+@Description("Finding one move for a player, by search, endgame solver or opening book")
+@StackTrace(false)
+public class SearchEvent extends Event {
+    @Label("Source")
+    private String source;
+
+    @Label("Move")
+    @Description("Square index, row * 8 + column")
+    private int move;
+
+    @Label("Score")
+    private int score;
+
+    @Label("Depth")
+    private int depth;
+
+    @Label("Threads")
+    private int threads;
+
+    @Label("Nodes")
+    private long nodes;
+
+    @Label("Leaf Evaluations")
+    private long leafEvaluations;
+
+    @Label("Beta Cutoffs")
+    private long betaCutoffs;
+
+    @Label("Table Probes")
+    private long tableProbes;
+
+    @Label("Table Hits")
+    private long tableHits;
+
+    @Label("Move Time")
+    @Description("Wall time spent finding the move")
+    @Timespan
+    private long wallNanos;
+
+    public void commit(SearchStatistics statistics) {
+        // fill in statistics and commit, event's duration runs from begin() (if called) to now
+        if (!shouldCommit()) {
+            return;
+        }
+        source = statistics.getSource().name();
+        move = statistics.getMove();
+        score = statistics.getScore();
+        depth = statistics.getDepth();
+        threads = statistics.getThreads();
+        nodes = statistics.getNodes();
+        leafEvaluations = statistics.getLeafEvaluations();
+        betaCutoffs = statistics.getBetaCutoffs();
+        tableProbes = statistics.getTableProbes();
+        tableHits = statistics.getTableHits();
+        wallNanos = statistics.getWallNanos();
+        commit();
+    }
+}
@@ -0,0 +1,123 @@
+// October 18, 2026
+
+// what went into finding one move: where it came from, how deep and how many nodes, cutoffs, table hits and how long
+// it took. counters other than nodes are only collected when SearchStatistics.COUNTERS_ENABLED is on
+
+public class SearchStatistics {
+    /* on unless -Dothello.searchCounters=false. static final so when it's off the JIT removes counting from
+    search entirely */
+    public static final boolean COUNTERS_ENABLED =
+            Boolean.parseBoolean(System.getProperty("othello.searchCounters", "true"));
+
+    public enum Source {
+        SEARCH,  // alpha-beta search
+        ENDGAME_SOLVER,  // solved exactly, depth is empty squares
+        OPENING_BOOK,  // looked up, nothing searched
+        PONDER  // searched in background before opponent moved, counters are that search's
+    }
+
+    private final Source source;
+    private final int move;  // square (row * 8 + column)
+    private final int score;  // searching player's point of view
+    private final int depth;
+    private final int threads;
+    private final long nodes;
+    private final long leafEvaluations;
+    private final long betaCutoffs;
+    private final long tableProbes;
+    private final long tableHits;
+    private final long wallNanos;
+
+    public SearchStatistics(Source source, int move, int score, int depth, int threads, long nodes,
+                            long leafEvaluations, long betaCutoffs, long tableProbes, long tableHits, long wallNanos) {
+        this.source = source;
+        this.move = move;
+        this.score = score;
+        this.depth = depth;
+        this.threads = threads;
+        this.nodes = nodes;
+        this.leafEvaluations = leafEvaluations;
+        this.betaCutoffs = betaCutoffs;
+        this.tableProbes = tableProbes;
+        this.tableHits = tableHits;
+        this.wallNanos = wallNanos;
+    }
+
+    public static SearchStatistics bookMove(int move, long wallNanos) {
+        return new SearchStatistics(Source.OPENING_BOOK, move, 0, 0, 0, 0, 0, 0, 0, 0, wallNanos);
+    }
+
+    public static SearchStatistics ponderHit(SearchStatistics pondered, long wallNanos) {
+        // statistics of a search done while pondering, with wall time of actually playing its move
+        return new SearchStatistics(Source.PONDER, pondered.move, pondered.score, pondered.depth, pondered.threads,
+                pondered.nodes, pondered.leafEvaluations, pondered.betaCutoffs, pondered.tableProbes,
+                pondered.tableHits, wallNanos);
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public int getMove() {
+        return move;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getLeafEvaluations() {
+        return leafEvaluations;
+    }
+
+    public long getBetaCutoffs() {
+        return betaCutoffs;
+    }
+
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    public double getTableHitRate() {
+        return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public double getNodesPerSecond() {  // 0 for a ponder hit, its search happened while it wasn't being timed
+        return wallNanos == 0 || source == Source.PONDER ? 0 : nodes * 1e9 / wallNanos;
+    }
+
+    @Override
+    public String toString() {  // one line summary, e.g. for printing after program's move
+        double milliseconds = wallNanos / 1e6;
+        return switch (source) {
+            case OPENING_BOOK -> String.format("played opening book move in %.2f ms", milliseconds);
+            case PONDER -> String.format("played move pondered on your time (%d plies, %,d nodes) in %.2f ms",
+                    depth, nodes, milliseconds);
+            case ENDGAME_SOLVER -> String.format("solved %d empty squares, %,d nodes (%,.0f/sec) in %.1f ms",
+                    depth, nodes, getNodesPerSecond(), milliseconds);
+            case SEARCH -> String.format("searched %d plies, %,d nodes (%,.0f/sec), %,d evaluations, %,d cutoffs, "
+                            + "%.0f%% table hits in %.1f ms", depth, nodes, getNodesPerSecond(), leafEvaluations,
+                    betaCutoffs, getTableHitRate() * 100, milliseconds);
+        };
+    }
+}
@@ -0,0 +1,274 @@
+// October 18, 2026
+
+// headless engine vs engine runner. plays many games between two engine configurations on all cores, starting each
+// pair of games from the same random opening with colors swapped, and reports results from first configuration's
+// point of view.
+// usage: java Tournament [--games N] [--threads N] [--opening-plies N] [--seed N] [--hash-megabytes N]
+//                         [--game-log file] configA configB    (game log gets every game, see GameRecordWriter)
+// configuration is comma separated key=value: difficulty=EASY|MEDIUM|HARD (its depth and budget, time spread over
+// game like in GameProgram), depth=plies, time=milliseconds per move, nodes=nodes per move, endgame=empty squares
+// endgame solver takes over at (0 for never), eval=disc|pattern|handmade|weight file
+// for example: java Tournament --games 2000 depth=6 difficulty=HARD,time=50
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+public class Tournament {
+    private final EngineConfig firstConfig;
+    private final EngineConfig secondConfig;
+    private final int openingPlies;  // random moves played before engines take over
+    private final long seed;
+    private final int hashMegabytes;  // table size for each engine, every thread has one engine per configuration
+    private final GameStatistics gameStatistics = new GameStatistics();  // first configuration's results
+    private final AtomicLong gamesFinished = new AtomicLong();
+    private final ThreadLocal<SearchEngine[]> engines;
+    private GameRecordWriter gameRecordWriter;  // every game is appended here, null to not record games
+
+    public Tournament(EngineConfig firstConfig, EngineConfig secondConfig, int openingPlies, long seed,
+                      int hashMegabytes) {
+        this.firstConfig = firstConfig;
+        this.secondConfig = secondConfig;
+        this.openingPlies = openingPlies;
+        this.seed = seed;
+        this.hashMegabytes = hashMegabytes;
+        engines = ThreadLocal.withInitial(() -> new SearchEngine[]{
+                createEngine(this.firstConfig), createEngine(this.secondConfig)});
+    }
+
+    private SearchEngine createEngine(EngineConfig config) {
+        SearchEngine engine = new SearchEngine(hashMegabytes, 1, config.evaluator);
+        engine.setEndgameEmpties(config.endgameEmpties);
+        return engine;
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int games = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int openingPlies = 8;
+        long seed = 1;
+        int hashMegabytes = 4;
+        Path gameLog = null;
+        EngineConfig[] configs = new EngineConfig[2];
+        int configCount = 0;
+        for (int argIndex = 0; argIndex < args.length; argIndex++) {
+            switch (args[argIndex]) {
+                case "--games" -> games = Integer.parseInt(args[++argIndex]);
+                case "--threads" -> threads = Integer.parseInt(args[++argIndex]);
+                case "--opening-plies" -> openingPlies = Integer.parseInt(args[++argIndex]);
+                case "--seed" -> seed = Long.parseLong(args[++argIndex]);
+                case "--hash-megabytes" -> hashMegabytes = Integer.parseInt(args[++argIndex]);
+                case "--game-log" -> gameLog = Path.of(args[++argIndex]);
+                default -> {
+                    if (configCount == configs.length) {
+                        throw new IllegalArgumentException("unexpected argument: " + args[argIndex]);
+                    }
+                    configs[configCount++] = EngineConfig.parse(args[argIndex]);
+                }
+            }
+        }
+        if (configCount != configs.length) {
+            System.out.println("usage: java Tournament [--games N] [--threads N] [--opening-plies N] [--seed N] "
+                    + "[--hash-megabytes N] [--game-log file] configA configB");
+            return;
+        }
+
+        Tournament tournament = new Tournament(configs[0], configs[1], openingPlies, seed, hashMegabytes);
+        long startTime = System.nanoTime();
+        if (gameLog == null) {
+            tournament.run(games, threads);
+        } else {
+            try (GameRecordWriter gameRecordWriter = new GameRecordWriter(gameLog)) {
+                tournament.setGameRecordWriter(gameRecordWriter);
+                tournament.run(games, threads);
+            }
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        tournament.printReport(seconds, threads);
+    }
+
+    public void setGameRecordWriter(GameRecordWriter gameRecordWriter) {  // record games played from now on
+        this.gameRecordWriter = gameRecordWriter;
+    }
+
+    public GameStatistics run(int games, int threads) throws InterruptedException {
+        /* play games (rounded up to even, as games are played in pairs) across given number of threads and return
+        first configuration's results */
+        int pairs = (games + 1) / 2;
+        ExecutorService gameThreads = Executors.newFixedThreadPool(threads);
+        for (int pairIndex = 0; pairIndex < pairs; pairIndex++) {
+            int opening = pairIndex;
+            gameThreads.execute(() -> playPair(opening, pairs * 2));
+        }
+        gameThreads.shutdown();
+        gameThreads.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        return gameStatistics;
+    }
+
+    private void playPair(int opening, int totalGames) {
+        // same opening twice, first configuration plays first (as user) then second
+        int[] openingMoves = randomOpening(new Random(seed * 1_000_003 + opening));
+        SearchEngine[] threadEngines = engines.get();
+        recordGame(playGame(openingMoves, threadEngines, true), totalGames);
+        recordGame(playGame(openingMoves, threadEngines, false), totalGames);
+    }
+
+    private void recordGame(int[] firstAndSecondPieces, int totalGames) {
+        gameStatistics.recordGame(firstAndSecondPieces[0], firstAndSecondPieces[1]);
+        long finished = gamesFinished.incrementAndGet();
+        if (finished % Math.max(1, totalGames / 10) == 0) {  // progress every 10%
+            System.out.printf("%d/%d games, first configuration scored %.1f%%%n", finished, totalGames,
+                    gameStatistics.getScore() * 100);
+        }
+    }
+
+    private int[] randomOpening(Random random) {
+        // random legal moves from starting board, stopping early if game would end
+        OthelloBoard board = new OthelloBoard();
+        int[] moves = new int[openingPlies];
+        int[] moveBuffer = new int[32];
+        Player playerToMove = Player.USER;
+        int movesPlayed = 0;
+        while (movesPlayed < openingPlies && board.isSomeLegalMoveLeft()) {
+            int moveCount = board.getLegalMoves(playerToMove, moveBuffer);
+            if (moveCount > 0) {
+                int move = moveBuffer[random.nextInt(moveCount)];
+                board.runTurn(move / 8, move % 8, playerSymbol(board, playerToMove));
+                moves[movesPlayed++] = move;
+            }
+            playerToMove = opponentOf(playerToMove);
+        }
+        return Arrays.copyOf(moves, movesPlayed);
+    }
+
+    private int[] playGame(int[] openingMoves, SearchEngine[] threadEngines, boolean firstConfigIsUser) {
+        /* play opening then let engines play out game. user side always moves first.
+        returns first configuration's pieces and second configuration's pieces at end of game */
+        OthelloBoard board = new OthelloBoard();
+        if (gameRecordWriter != null) {
+            board.setGameRecordWriter(gameRecordWriter);
+        }
+        Player playerToMove = Player.USER;
+        int openingIndex = 0;
+        while (board.isSomeLegalMoveLeft()) {
+            if (board.getLegalMoves(playerToMove) != 0) {
+                if (openingIndex < openingMoves.length) {
+                    int move = openingMoves[openingIndex++];
+                    board.runTurn(move / 8, move % 8, playerSymbol(board, playerToMove));
+                } else {
+                    boolean firstConfigToMove = (playerToMove == Player.USER) == firstConfigIsUser;
+                    EngineConfig config = firstConfigToMove ? firstConfig : secondConfig;
+                    SearchEngine engine = threadEngines[firstConfigToMove ? 0 : 1];
+                    board.playEngineMove(playerToMove, engine, config.searchDepth,
+                            config.getTimeLimitMillis(board.getEmptySquaresCount()), config.nodeLimit);
+                    config.recordMove(board.getLastMoveStatistics());
+                }
+            }
+            playerToMove = opponentOf(playerToMove);
+        }
+        board.endGameAndGetWinner();  // records game, if recording
+        int userPieces = board.getUserPiecesOnBoard();
+        int programPieces = board.getProgramPiecesOnBoard();
+        return firstConfigIsUser ? new int[]{userPieces, programPieces} : new int[]{programPieces, userPieces};
+    }
+
+    private static String playerSymbol(OthelloBoard board, Player player) {
+        return player == Player.USER ? board.getUSER_SYMBOL() : board.getPROGRAM_SYMBOL();
+    }
+
+    private static Player opponentOf(Player player) {
+        return player == Player.USER ? Player.PROGRAM : Player.USER;
+    }
+
+    private void printReport(double seconds, int threads) {
+        System.out.println("\n" + firstConfig + "  vs  " + secondConfig);
+        System.out.println("-----------------------------");
+        System.out.printf("games: %d (wins %d, losses %d, ties %d)%n", gameStatistics.getGamesPlayed(),
+                gameStatistics.getWins(), gameStatistics.getLosses(), gameStatistics.getTies());
+        System.out.printf("average piece differential: %+.2f%n", gameStatistics.getAveragePieceDifferential());
+        System.out.printf("Elo difference: %+.1f +/- %.1f (95%%)%n", gameStatistics.getEloDifference(),
+                gameStatistics.getEloErrorMargin());
+        System.out.printf("%.2f games/sec on %d threads (%.1f sec)%n", gameStatistics.getGamesPlayed() / seconds,
+                threads, seconds);
+        firstConfig.printMoveTimes();
+        secondConfig.printMoveTimes();
+    }
+
+    public static class EngineConfig {
+        // how one side of tournament picks its moves
+        private final String description;
+        private int searchDepth = OthelloBoard.getSearchDepth(GameDifficulty.HARD);
+        private long timeLimitMillis;  // 0 for no limit, or difficulty's if it has one
+        private long nodeLimit;  // 0 for no limit
+        private GameDifficulty difficulty;  // difficulty whose time budget is used if there's no time limit, or null
+        private int endgameEmpties = EndgameSolver.DEFAULT_MAX_EMPTIES;
+        private Evaluator evaluator = Evaluator.getDefault();
+        private final AtomicLong movesSearched = new AtomicLong();  // engine moves and their totals, from all threads
+        private final AtomicLong searchNanos = new AtomicLong();
+        private final AtomicLong nodes = new AtomicLong();
+        private final LongAccumulator longestMoveNanos = new LongAccumulator(Math::max, 0);
+
+        private EngineConfig(String description) {
+            this.description = description;
+        }
+
+        public static EngineConfig parse(String description) {
+            // parse comma separated key=value pairs, later keys override earlier ones
+            EngineConfig config = new EngineConfig(description);
+            for (String setting : description.split(",")) {
+                String[] keyAndValue = setting.split("=", 2);
+                if (keyAndValue.length != 2) {
+                    throw new IllegalArgumentException("expected key=value, got: " + setting);
+                }
+                String value = keyAndValue[1].trim();
+                switch (keyAndValue[0].trim()) {
+                    case "difficulty" -> {
+                        config.difficulty = GameDifficulty.valueOf(value.toUpperCase());
+                        config.searchDepth = config.difficulty.getMaxDepth();
+                        config.timeLimitMillis = 0;
+                        config.nodeLimit = config.difficulty.getNodeLimit();
+                    }
+                    case "depth" -> config.searchDepth = Integer.parseInt(value);
+                    case "time" -> config.timeLimitMillis = Long.parseLong(value);
+                    case "nodes" -> config.nodeLimit = Long.parseLong(value);
+                    case "endgame" -> config.endgameEmpties = Integer.parseInt(value);
+                    case "eval" -> config.evaluator = Evaluator.forName(value);
+                    default -> throw new IllegalArgumentException("unknown setting: " + keyAndValue[0]);
+                }
+            }
+            return config;
+        }
+
+        private long getTimeLimitMillis(int emptySquares) {  // time limit for a move, 0 for none
+            return timeLimitMillis > 0 || difficulty == null ? timeLimitMillis :
+                    difficulty.getMoveTimeMillis(emptySquares);
+        }
+
+        private void recordMove(SearchStatistics statistics) {
+            if (statistics != null) {  // null if engine had to pass
+                movesSearched.incrementAndGet();
+                searchNanos.addAndGet(statistics.getWallNanos());
+                nodes.addAndGet(statistics.getNodes());
+                longestMoveNanos.accumulate(statistics.getWallNanos());
+            }
+        }
+
+        private void printMoveTimes() {
+            long moves = Math.max(1, movesSearched.get());
+            System.out.printf("%s: %.2f ms/move (longest %.1f ms), %,.0f nodes/sec%n", description,
+                    searchNanos.get() / 1e6 / moves, longestMoveNanos.get() / 1e6,
+                    searchNanos.get() == 0 ? 0 : nodes.get() * 1e9 / searchNanos.get());
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+}
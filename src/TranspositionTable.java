@@ -0,0 +1,117 @@
+// October 18, 2026
+
+// fixed size hash table of search results, preallocated from a memory budget given in megabytes.
+// lock free, can be shared by several search threads
+
+import java.util.Arrays;
+
+public class TranspositionTable {
+    public static final int EXACT = 0;  // bound types of a stored score
+    public static final int LOWER_BOUND = 1;  // search failed high, real score is at least stored score
+    public static final int UPPER_BOUND = 2;  // search failed low, real score is at most stored score
+    public static final long NO_ENTRY = 0;  // returned by probe when position isn't stored
+
+    private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;  // one long for key, one for packed data
+    private static final int ENTRIES_PER_BUCKET = 2;  // slot 0 is depth-preferred, slot 1 is always-replace
+    private static final int MAX_ENTRIES = 1 << 30;  // largest power of two array length
+
+    // packed data layout: score 32 bits, move + 1 7 bits, depth 8 bits, bound 2 bits, valid 1 bit, generation 8 bits
+    private static final int MOVE_SHIFT = 32;
+    private static final int DEPTH_SHIFT = 39;
+    private static final int BOUND_SHIFT = 47;
+    private static final long VALID_BIT = 1L << 49;
+    private static final int GENERATION_SHIFT = 50;
+
+    private final long[] keys;  // hash xor data, so a torn write can never match
+    private final long[] data;
+    private final int bucketMask;
+    private int generation;  // bumped every search so entries from older searches get replaced first
+
+    public TranspositionTable(int megabytes) {
+        // round entries down to a power of two so buckets can be indexed by masking the hash
+        long budgetEntries = Math.max(ENTRIES_PER_BUCKET, (long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        int entries = (int) Math.min(MAX_ENTRIES, Long.highestOneBit(budgetEntries));
+        keys = new long[entries];
+        data = new long[entries];
+        bucketMask = entries / ENTRIES_PER_BUCKET - 1;
+    }
+
+    public void newSearch() {  // call before each search so older entries lose depth-preferred slots
+        generation = (generation + 1) & 0xff;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    public long probe(long hash) {
+        /* return packed data stored for position with given hash, or NO_ENTRY if it isn't stored.
+        unpack with getScore, getMove, getDepth and getBound. probes and hits are counted by searches (see
+        SearchStatistics), not here, so this stays free of shared writes */
+        int index = bucketIndex(hash);
+        for (int slot = index; slot < index + ENTRIES_PER_BUCKET; slot++) {
+            long entryData = data[slot];
+            if ((keys[slot] ^ entryData) == hash && entryData != NO_ENTRY) {
+                return entryData;
+            }
+        }
+        return NO_ENTRY;
+    }
+
+    public void store(long hash, int depth, int score, int bound, int move) {
+        /* store search result. depth-preferred slot keeps the deepest result unless it's from an older search,
+        anything else goes in always-replace slot */
+        int index = bucketIndex(hash);
+        long entryData = (score & 0xffffffffL) | ((long) (move + 1) << MOVE_SHIFT) | ((long) depth << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT) | VALID_BIT | ((long) generation << GENERATION_SHIFT);
+        long preferredData = data[index];
+        boolean sameHash = (keys[index] ^ preferredData) == hash;
+        if (preferredData == NO_ENTRY || sameHash || depth >= getDepth(preferredData)
+                || getGeneration(preferredData) != generation) {
+            data[index] = entryData;
+            keys[index] = hash ^ entryData;
+        } else {
+            data[index + 1] = entryData;
+            keys[index + 1] = hash ^ entryData;
+        }
+    }
+
+    private int bucketIndex(long hash) {  // index of first slot of bucket for hash
+        return ((int) hash & bucketMask) * ENTRIES_PER_BUCKET;
+    }
+
+    public static int getScore(long entryData) {
+        return (int) entryData;
+    }
+
+    public static int getMove(long entryData) {  // -1 if no move was stored
+        return (int) ((entryData >>> MOVE_SHIFT) & 0x7f) - 1;
+    }
+
+    public static int getDepth(long entryData) {
+        return (int) ((entryData >>> DEPTH_SHIFT) & 0xff);
+    }
+
+    public static int getBound(long entryData) {
+        return (int) ((entryData >>> BOUND_SHIFT) & 0x3);
+    }
+
+    private static int getGeneration(long entryData) {
+        return (int) ((entryData >>> GENERATION_SHIFT) & 0xff);
+    }
+
+    public int getCapacity() {  // number of entries table can hold
+        return keys.length;
+    }
+
+    public double getFillRatio() {  // fraction of entries in use. scans whole table so don't call during search
+        int used = 0;
+        for (long entryData : data) {
+            if (entryData != NO_ENTRY) {
+                used++;
+            }
+        }
+        return (double) used / data.length;
+    }
+}
@@ -0,0 +1,89 @@
+// October 18, 2026
+
+// vector kernels behind BatchBitBoard, same fills and walks as BitBoard's with one board per lane. only loaded once
+// BatchBitBoard has checked jdk.incubator.vector is there. walks over opponent pieces always take 6 steps (longest
+// possible run) instead of stopping when a run ends, so every lane does the same work
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+final class VectorBitBoard {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final int LONGEST_RUN = 6;
+    // each direction's shift distance is taken left (down-right, down, down-left and right) and right (the opposite
+    // direction), with masks as BitBoard's
+    private static final int[] DISTANCES = {9, 8, 7, 1};
+    private static final long[] OPPONENT_MASKS = {BitBoard.INNER_FILES, -1L, BitBoard.INNER_FILES,
+            BitBoard.INNER_FILES};  // opponent pieces that can be inside a run
+    private static final long[] LEFT_LANDING_MASKS = {BitBoard.NOT_A_FILE, -1L, BitBoard.NOT_H_FILE,
+            BitBoard.NOT_A_FILE};  // squares a left shift can land on without wrapping around a row
+    private static final long[] RIGHT_LANDING_MASKS = {BitBoard.NOT_H_FILE, -1L, BitBoard.NOT_A_FILE,
+            BitBoard.NOT_H_FILE};
+
+    private VectorBitBoard() {
+    }
+
+    static int getLanes() {
+        return SPECIES.length();
+    }
+
+    static int legalMoves(long[] players, long[] opponents, long[] moves, int count) {
+        /* legal moves of as many boards as fill whole vectors, returns how many that is (rest is left to caller).
+        each direction's fill is written out here rather than in a helper: vector operations only become vector
+        instructions once they're inlined with constant operators, which helpers compiled on their own stop */
+        int bound = SPECIES.loopBound(count);
+        for (int board = 0; board < bound; board += SPECIES.length()) {
+            LongVector player = LongVector.fromArray(SPECIES, players, board);
+            LongVector opponent = LongVector.fromArray(SPECIES, opponents, board);
+            LongVector legal = LongVector.zero(SPECIES);
+            for (int direction = 0; direction < DISTANCES.length; direction++) {  // left then right shift of each
+                int distance = DISTANCES[direction];
+                LongVector maskedOpponent = opponent.and(OPPONENT_MASKS[direction]);
+                LongVector leftRun = maskedOpponent.and(player.lanewise(VectorOperators.LSHL, distance));
+                LongVector rightRun = maskedOpponent.and(player.lanewise(VectorOperators.LSHR, distance));
+                for (int step = 1; step < LONGEST_RUN; step++) {
+                    leftRun = leftRun.or(maskedOpponent.and(leftRun.lanewise(VectorOperators.LSHL, distance)));
+                    rightRun = rightRun.or(maskedOpponent.and(rightRun.lanewise(VectorOperators.LSHR, distance)));
+                }
+                legal = legal.or(leftRun.lanewise(VectorOperators.LSHL, distance))
+                        .or(rightRun.lanewise(VectorOperators.LSHR, distance));
+            }
+            legal.and(player.or(opponent).lanewise(VectorOperators.NOT)).intoArray(moves, board);
+        }
+        return bound;
+    }
+
+    static int flips(long[] players, long[] opponents, long[] moves, long[] flipped, int count) {
+        /* flips of as many boards as fill whole vectors, returns how many that is. in each direction, opponent
+        pieces in a run from move are kept only where square after run is player's (run holds every opponent piece
+        in a row, so square after it is empty, player's or off board) */
+        int bound = SPECIES.loopBound(count);
+        for (int board = 0; board < bound; board += SPECIES.length()) {
+            LongVector player = LongVector.fromArray(SPECIES, players, board);
+            LongVector opponent = LongVector.fromArray(SPECIES, opponents, board);
+            LongVector move = LongVector.fromArray(SPECIES, moves, board);
+            LongVector flips = LongVector.zero(SPECIES);
+            for (int direction = 0; direction < DISTANCES.length; direction++) {
+                int distance = DISTANCES[direction];
+                LongVector leftOpponent = opponent.and(LEFT_LANDING_MASKS[direction]);
+                LongVector rightOpponent = opponent.and(RIGHT_LANDING_MASKS[direction]);
+                LongVector leftRun = leftOpponent.and(move.lanewise(VectorOperators.LSHL, distance));
+                LongVector rightRun = rightOpponent.and(move.lanewise(VectorOperators.LSHR, distance));
+                for (int step = 1; step < LONGEST_RUN; step++) {
+                    leftRun = leftRun.or(leftOpponent.and(leftRun.lanewise(VectorOperators.LSHL, distance)));
+                    rightRun = rightRun.or(rightOpponent.and(rightRun.lanewise(VectorOperators.LSHR, distance)));
+                }
+                VectorMask<Long> leftOpen = player.and(LEFT_LANDING_MASKS[direction])
+                        .and(leftRun.lanewise(VectorOperators.LSHL, distance)).compare(VectorOperators.EQ, 0);
+                VectorMask<Long> rightOpen = player.and(RIGHT_LANDING_MASKS[direction])
+                        .and(rightRun.lanewise(VectorOperators.LSHR, distance)).compare(VectorOperators.EQ, 0);
+                flips = flips.or(leftRun.blend(0, leftOpen)).or(rightRun.blend(0, rightOpen));
+            }
+            VectorMask<Long> occupied = move.and(player.or(opponent)).compare(VectorOperators.NE, 0);
+            flips.blend(0, occupied).intoArray(flipped, board);
+        }
+        return bound;
+    }
+}
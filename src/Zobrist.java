@@ -0,0 +1,73 @@
+// October 18, 2026
+
+// zobrist keys for hashing a board and the side to move into one 64-bit number
+
+public final class Zobrist {
+    public static final int FIRST_COLOR = 0;  // color of player who moves first (user in GameProgram)
+    public static final int SECOND_COLOR = 1;
+
+    private static final long SEED = 0x4f7468656c6c6f21L;  // fixed so hashes are the same on every run
+    private static final long[][] PIECE_KEYS = new long[2][BitBoard.SQUARES];  // key for each color's piece on square
+    private static final long[] FLIP_KEYS = new long[BitBoard.SQUARES];  // both colors' keys, swaps piece's color
+    private static final long SIDE_TO_MOVE_KEY;  // included when second color is to move
+
+    static {
+        long state = SEED;
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            state += 0x9e3779b97f4a7c15L;
+            PIECE_KEYS[FIRST_COLOR][square] = mix(state);
+            state += 0x9e3779b97f4a7c15L;
+            PIECE_KEYS[SECOND_COLOR][square] = mix(state);
+            FLIP_KEYS[square] = PIECE_KEYS[FIRST_COLOR][square] ^ PIECE_KEYS[SECOND_COLOR][square];
+        }
+        state += 0x9e3779b97f4a7c15L;
+        SIDE_TO_MOVE_KEY = mix(state);
+    }
+
+    private Zobrist() {  // only static helpers, never instantiated
+    }
+
+    private static long mix(long value) {  // splitmix64 finalizer, spreads seed into well distributed keys
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    public static long hash(long firstColorPieces, long secondColorPieces, int colorToMove) {
+        // compute hash of whole position from scratch
+        return pieceKeys(FIRST_COLOR, firstColorPieces) ^ pieceKeys(SECOND_COLOR, secondColorPieces)
+                ^ sideToMoveKey(colorToMove);
+    }
+
+    public static long pieceKeys(int color, long pieces) {  // xor of keys for every piece of given color in mask
+        long key = 0;
+        while (pieces != 0) {
+            key ^= PIECE_KEYS[color][Long.numberOfTrailingZeros(pieces)];
+            pieces &= pieces - 1;
+        }
+        return key;
+    }
+
+    public static long flipKeys(long flipped) {  // xor this in to swap color of every piece in mask
+        long key = 0;
+        while (flipped != 0) {
+            key ^= FLIP_KEYS[Long.numberOfTrailingZeros(flipped)];
+            flipped &= flipped - 1;
+        }
+        return key;
+    }
+
+    public static long sideToMoveKey(int colorToMove) {
+        return colorToMove == SECOND_COLOR ? SIDE_TO_MOVE_KEY : 0;
+    }
+
+    public static long moveKey(int color, int square, long flipped) {
+        /* xor this into hash of position to play move: places color's piece, swaps flipped pieces and passes turn
+        to other color */
+        return PIECE_KEYS[color][square] ^ flipKeys(flipped) ^ SIDE_TO_MOVE_KEY;
+    }
+
+    public static long passKey() {  // xor into hash when player to move has to pass
+        return SIDE_TO_MOVE_KEY;
+    }
+}
@@ -0,0 +1,116 @@
+// October 18, 2026
+
+// BatchBitBoard's vector kernels give exactly BitBoard's results, on positions from played games and on random boards,
+// for batch sizes that do and don't fill whole vectors (so the scalar tail after the vectors is covered too)
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BatchBitBoardTest {
+    private static final int BOARDS = 20_000;
+
+    private static void fillPlayedPositions(long[] players, long[] opponents, int from, int to, Random random) {
+        // positions of games played with random legal moves, from starting board each time one ends
+        long player = BitBoard.STARTING_FIRST_PLAYER_PIECES;
+        long opponent = BitBoard.STARTING_SECOND_PLAYER_PIECES;
+        for (int board = from; board < to; board++) {
+            players[board] = player;
+            opponents[board] = opponent;
+            long legalMoves = BitBoard.legalMoves(player, opponent);
+            if (legalMoves == 0) {
+                if (BitBoard.legalMoves(opponent, player) == 0) {  // game over, start another
+                    player = BitBoard.STARTING_FIRST_PLAYER_PIECES;
+                    opponent = BitBoard.STARTING_SECOND_PLAYER_PIECES;
+                } else {  // pass
+                    long swap = player;
+                    player = opponent;
+                    opponent = swap;
+                }
+                continue;
+            }
+            for (int skip = random.nextInt(Long.bitCount(legalMoves)); skip > 0; skip--) {
+                legalMoves &= legalMoves - 1;
+            }
+            int move = Long.numberOfTrailingZeros(legalMoves);
+            long flipped = BitBoard.flips(player, opponent, move);
+            long newPlayer = player | flipped | (1L << move);
+            player = opponent & ~flipped;
+            opponent = newPlayer;
+        }
+    }
+
+    private static void fillRandomPositions(long[] players, long[] opponents, int from, int to, Random random) {
+        // about a quarter of squares each player's, including positions no game reaches
+        for (int board = from; board < to; board++) {
+            players[board] = random.nextLong() & random.nextLong();
+            opponents[board] = random.nextLong() & random.nextLong() & ~players[board];
+        }
+    }
+
+    private static void assertSameAsScalar(long[] players, long[] opponents, int count) {
+        long[] moves = new long[count];
+        long[] expectedMoves = new long[count];
+        BatchBitBoard.legalMoves(players, opponents, moves, count);
+        BatchBitBoard.scalarLegalMoves(players, opponents, expectedMoves, 0, count);
+        for (int board = 0; board < count; board++) {
+            assertEquals(expectedMoves[board], moves[board], "legal moves of board " + board + " of " + count);
+        }
+
+        long[] move = new long[count];
+        long[] flipped = new long[count];
+        long[] expectedFlipped = new long[count];
+        for (int square = -1; square < 64; square++) {  // every square for every board (legal or not), and no move
+            for (int board = 0; board < count; board++) {
+                move[board] = square < 0 ? 0 : 1L << ((square + board) & 63);
+            }
+            BatchBitBoard.flips(players, opponents, move, flipped, count);
+            BatchBitBoard.scalarFlips(players, opponents, move, expectedFlipped, 0, count);
+            for (int board = 0; board < count; board++) {
+                assertEquals(expectedFlipped[board], flipped[board],
+                        "flips of board " + board + " of " + count + " at " + Long.numberOfTrailingZeros(move[board]));
+            }
+        }
+    }
+
+    @Test
+    void usesVectors() {  // pom runs tests with the vector module, so a scalar fallback here means it's not checked
+        assertTrue(BatchBitBoard.isVectorized());
+    }
+
+    @Test
+    void playedPositionsMatchScalar() {
+        long[] players = new long[BOARDS];
+        long[] opponents = new long[BOARDS];
+        fillPlayedPositions(players, opponents, 0, BOARDS, new Random(1));
+        assertSameAsScalar(players, opponents, BOARDS);
+    }
+
+    @Test
+    void randomPositionsMatchScalar() {
+        long[] players = new long[BOARDS];
+        long[] opponents = new long[BOARDS];
+        fillRandomPositions(players, opponents, 0, BOARDS, new Random(2));
+        assertSameAsScalar(players, opponents, BOARDS);
+    }
+
+    @Test
+    void partialVectorsMatchScalar() {
+        // counts around lane width and its multiples, from fewer boards than one vector holds
+        int lanes = BatchBitBoard.getLanes();
+        Random random = new Random(3);
+        for (int count : new int[]{1, lanes - 1, lanes, lanes + 1, 3 * lanes - 1, 5 * lanes + 3, 1001}) {
+            if (count < 1) {
+                continue;
+            }
+            long[] players = new long[count];
+            long[] opponents = new long[count];
+            fillPlayedPositions(players, opponents, 0, count / 2, random);
+            fillRandomPositions(players, opponents, count / 2, count, random);
+            assertSameAsScalar(players, opponents, count);
+        }
+    }
+}
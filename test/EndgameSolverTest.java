@@ -0,0 +1,83 @@
+// October 18, 2026
+
+// endgame solver's scores and moves against a plain minimax to the end of the game, on random positions with few
+// enough empty squares to brute force. covers the last empties code (4 or fewer), parity ordering, fastest first
+// ordering and solver's table, and both the win/loss/draw pass and the exact pass
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class EndgameSolverTest {
+    private static final int MAX_EMPTIES = 10;  // brute force stays well under a second per position
+    private static final int POSITIONS = 12;  // per number of empties
+
+    private static int bruteForce(long player, long opponent) {
+        // final piece difference for player to move with best play, pieces left empty count for nobody
+        long legalMoves = BitBoard.legalMoves(player, opponent);
+        if (legalMoves == 0) {
+            if (BitBoard.legalMoves(opponent, player) == 0) {
+                return Long.bitCount(player) - Long.bitCount(opponent);
+            }
+            return -bruteForce(opponent, player);
+        }
+        int best = Integer.MIN_VALUE;
+        for (; legalMoves != 0; legalMoves &= legalMoves - 1) {
+            best = Math.max(best, scoreAfter(player, opponent, Long.numberOfTrailingZeros(legalMoves)));
+        }
+        return best;
+    }
+
+    private static int scoreAfter(long player, long opponent, int move) {  // best final score for player after move
+        long flipped = BitBoard.flips(player, opponent, move);
+        return -bruteForce(opponent & ~flipped, player | flipped | (1L << move));
+    }
+
+    @Test
+    void solveFindsExactScoreAndBestMove() {
+        EndgameSolver solver = new EndgameSolver();
+        for (int empties = 1; empties <= MAX_EMPTIES; empties++) {
+            Random random = new Random(empties);
+            for (int positionIndex = 0; positionIndex < POSITIONS; positionIndex++) {
+                long[] position = EndgameSolver.randomPosition(random, empties);
+                int expected = bruteForce(position[0], position[1]);
+                int move = solver.solve(position[0], position[1]);
+                String where = empties + " empties, position " + positionIndex;
+                assertTrue(solver.isLastSolveExact(), where);
+                assertEquals(expected, solver.getLastScore(), where);
+                assertEquals(expected, scoreAfter(position[0], position[1], move), "move of " + where);
+            }
+        }
+    }
+
+    @Test
+    void eachPassBoundsScoreCorrectly() {
+        // win/loss/draw pass gets score's sign, exact pass on the side of 0 it allows gets score itself
+        EndgameSolver solver = new EndgameSolver();
+        for (int empties = 1; empties <= MAX_EMPTIES; empties++) {
+            Random random = new Random(100 + empties);
+            for (int positionIndex = 0; positionIndex < POSITIONS; positionIndex++) {
+                long[] position = EndgameSolver.randomPosition(random, empties);
+                int expected = bruteForce(position[0], position[1]);
+                String where = empties + " empties, position " + positionIndex;
+
+                int move = solver.solveWindow(position[0], position[1], -1, 1);
+                int winLossDraw = solver.getLastScore();
+                assertEquals(Integer.signum(expected), Integer.signum(winLossDraw), where);
+                assertEquals(Integer.signum(expected), Integer.signum(scoreAfter(position[0], position[1], move)),
+                        "win/loss/draw move of " + where);
+                if (expected == 0) {
+                    assertEquals(0, winLossDraw, where);
+                    continue;
+                }
+                move = expected > 0 ? solver.solveWindow(position[0], position[1], 0, 65) :
+                        solver.solveWindow(position[0], position[1], -65, 0);
+                assertEquals(expected, solver.getLastScore(), where);
+                assertEquals(expected, scoreAfter(position[0], position[1], move), "exact move of " + where);
+            }
+        }
+    }
+}
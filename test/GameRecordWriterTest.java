@@ -0,0 +1,129 @@
+// October 18, 2026
+
+// game logs written across runs read back whole, even when a run died partway through writing a game
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GameRecordWriterTest {
+    @TempDir
+    Path directory;
+
+    private static byte[] game(int plies, int choice) {
+        // legal game of up to plies moves from starting board, picking choice'th legal move (wrapping around)
+        long player = BitBoard.STARTING_FIRST_PLAYER_PIECES;
+        long opponent = BitBoard.STARTING_SECOND_PLAYER_PIECES;
+        byte[] moves = new byte[plies];
+        int moveCount = 0;
+        while (moveCount < plies) {
+            long legalMoves = BitBoard.legalMoves(player, opponent);
+            if (legalMoves == 0) {
+                if (BitBoard.legalMoves(opponent, player) == 0) {
+                    break;
+                }
+                long swap = player;
+                player = opponent;
+                opponent = swap;
+                continue;
+            }
+            for (int skip = choice % Long.bitCount(legalMoves); skip > 0; skip--) {
+                legalMoves &= legalMoves - 1;
+            }
+            int move = Long.numberOfTrailingZeros(legalMoves);
+            long flipped = BitBoard.flips(player, opponent, move);
+            long newPlayer = player | flipped | (1L << move);
+            player = opponent & ~flipped;
+            opponent = newPlayer;
+            moves[moveCount++] = (byte) move;
+        }
+        return Arrays.copyOf(moves, moveCount);
+    }
+
+    private static long[] replayAll(Path log) throws IOException {
+        // games in log and sum of their piece differentials, replaying every one
+        long games = 0;
+        long differentials = 0;
+        try (GameDatabase database = new GameDatabase(log)) {
+            GameDatabase.Cursor cursor = database.cursor();
+            while (cursor.next()) {
+                differentials += cursor.replay(null);
+                games++;
+            }
+        }
+        return new long[]{games, differentials};
+    }
+
+    @Test
+    void appendsAfterTornLastGame() throws IOException {
+        Path log = directory.resolve("games.log");
+        byte[][] games = {game(60, 0), game(60, 1), game(30, 2)};
+        try (GameRecordWriter writer = new GameRecordWriter(log)) {
+            writer.writeGame(games[0], games[0].length);
+            writer.writeGame(games[1], games[1].length);
+        }
+        long completeSize = Files.size(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.APPEND)) {
+            // length byte and first few moves of a game that never got the rest written
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) games[0].length, games[0][0], games[0][1], games[0][2]}));
+        }
+        assertEquals(2, replayAll(log)[0], "reader ignores torn last game");
+
+        try (GameRecordWriter writer = new GameRecordWriter(log)) {
+            assertEquals(completeSize, Files.size(log), "torn game cut off on open");
+            writer.writeGame(games[2], games[2].length);
+        }
+        assertEquals(completeSize + 1 + games[2].length, Files.size(log));
+        long[] replayed = replayAll(log);
+        assertEquals(3, replayed[0]);
+        long[] expected = replayAll(writeFresh(games));
+        assertEquals(expected[1], replayed[1], "same games as a log written in one go");
+    }
+
+    @Test
+    void reopeningCompleteLogKeepsEveryGame() throws IOException {
+        Path log = directory.resolve("games.log");
+        byte[] game = game(60, 3);
+        for (int run = 0; run < 3; run++) {
+            try (GameRecordWriter writer = new GameRecordWriter(log)) {
+                writer.writeGame(game, game.length);
+            }
+        }
+        assertEquals(3, replayAll(log)[0]);
+    }
+
+    @Test
+    void replayNamesByteThatIsNotASquare() throws IOException {
+        Path log = directory.resolve("games.log");
+        try (GameRecordWriter writer = new GameRecordWriter(log)) {
+            writer.writeGame(new byte[]{19, (byte) 200}, 2);  // d3, then a byte no square has
+        }
+        try (GameDatabase database = new GameDatabase(log)) {
+            GameDatabase.Cursor cursor = database.cursor();
+            assertTrue(cursor.next());
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> cursor.replay(null));
+            assertTrue(e.getMessage().startsWith("illegal move byte 200 "), e.getMessage());
+        }
+    }
+
+    private Path writeFresh(byte[][] games) throws IOException {
+        Path log = directory.resolve("fresh.log");
+        try (GameRecordWriter writer = new GameRecordWriter(log)) {
+            for (byte[] game : games) {
+                writer.writeGame(game, game.length);
+            }
+        }
+        return log;
+    }
+}
@@ -0,0 +1,97 @@
+// October 18, 2026
+
+// move generation and flipping (bitboards and OthelloBoard's make/unmake) against perft's known counts from the
+// starting position, and unmakeMove putting a board back exactly as it was
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+class PerftTest {
+    private static final int DEPTH = 8;  // a few hundred thousand lines, quick on either path
+    private static final GamePosition START = new GamePosition(BitBoard.STARTING_FIRST_PLAYER_PIECES,
+            BitBoard.STARTING_SECOND_PLAYER_PIECES, true);
+
+    private static void assertStartingCounts(Perft perft) throws InterruptedException, ExecutionException {
+        for (int depth = 1; depth <= DEPTH; depth++) {
+            assertEquals(Perft.STARTING_COUNTS[depth], perft.count(START, depth), "perft " + depth);
+        }
+    }
+
+    @Test
+    void bitBoardCountsMatchKnownCounts() throws InterruptedException, ExecutionException {
+        assertStartingCounts(new Perft(1, 0, false));
+    }
+
+    @Test
+    void boardCountsMatchKnownCounts() throws InterruptedException, ExecutionException {
+        assertStartingCounts(new Perft(1, 0, true));
+    }
+
+    @Test
+    void splitAndHashedCountsMatchKnownCounts() throws InterruptedException, ExecutionException {
+        // subtrees on several threads, positions reached by different move orders counted once
+        assertStartingCounts(new Perft(2, 16, false));
+        assertStartingCounts(new Perft(2, 16, true));
+    }
+
+    private static long[] snapshot(OthelloBoard board) {
+        return new long[]{board.getPieces(Player.USER), board.getPieces(Player.PROGRAM), board.getHash(Player.USER),
+                board.getUserPiecesOnBoard(), board.getProgramPiecesOnBoard(), board.getEmptySquaresCount()};
+    }
+
+    private static void assertConsistent(OthelloBoard board) {  // counts agree with pieces
+        assertEquals(Long.bitCount(board.getPieces(Player.USER)), board.getUserPiecesOnBoard());
+        assertEquals(Long.bitCount(board.getPieces(Player.PROGRAM)), board.getProgramPiecesOnBoard());
+        assertEquals(64 - board.getUserPiecesOnBoard() - board.getProgramPiecesOnBoard(),
+                board.getEmptySquaresCount());
+    }
+
+    @Test
+    void unmakeMoveRestoresBoard() {
+        /* random games on one board: every legal move of every position is made and unmade, then one is kept. at
+        the end the whole game is unmade back to the starting board */
+        Random random = new Random(4);
+        for (int game = 0; game < 20; game++) {
+            OthelloBoard board = new OthelloBoard();
+            long[] start = snapshot(board);
+            Player player = Player.USER;
+            int movesMade = 0;
+            while (board.isSomeLegalMoveLeft()) {
+                String symbol = player == Player.USER ? board.getUSER_SYMBOL() : board.getPROGRAM_SYMBOL();
+                long moves = board.getLegalMoves(player);
+                long[] before = snapshot(board);
+                if (moves == 0) {  // a pass is an illegal move, recorded but changing nothing
+                    assertEquals(0, board.makeMove(-1, -1, symbol));
+                    assertEquals(before[2], board.getHash(Player.USER));
+                } else {
+                    for (long remaining = moves; remaining != 0; remaining &= remaining - 1) {
+                        int square = Long.numberOfTrailingZeros(remaining);
+                        long playerPieces = before[player == Player.USER ? 0 : 1];
+                        long opponentPieces = before[player == Player.USER ? 1 : 0];
+                        assertEquals(Long.bitCount(BitBoard.flips(playerPieces, opponentPieces, square)),
+                                board.makeMove(square / 8, square % 8, symbol));
+                        assertConsistent(board);
+                        board.unmakeMove();
+                        assertArrayEquals(before, snapshot(board), "after unmaking " + BitBoard.squareName(square));
+                    }
+                    for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--) {
+                        moves &= moves - 1;
+                    }
+                    int square = Long.numberOfTrailingZeros(moves);
+                    board.makeMove(square / 8, square % 8, symbol);
+                }
+                movesMade++;
+                player = player == Player.USER ? Player.PROGRAM : Player.USER;
+            }
+            for (; movesMade > 0; movesMade--) {
+                board.unmakeMove();
+            }
+            assertArrayEquals(start, snapshot(board), "game " + game + " unmade");
+        }
+    }
+}